@@ -40,6 +40,7 @@ CREATE TABLE IF NOT EXISTS users (
     password VARCHAR(255) NOT NULL,
     first_name VARCHAR(100) NOT NULL,
     last_name VARCHAR(100) NOT NULL,
+    expense_version BIGINT NOT NULL DEFAULT 0,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_email (email),
@@ -49,6 +50,9 @@ CREATE TABLE IF NOT EXISTS users (
 -- ================================================================
 -- Create Expenses Table
 -- ================================================================
+-- Every read filters on user_id first: idx_user_date serves date
+-- ranges and ordering, idx_user_category_date category filters and
+-- idx_user_amount amount ranges and ordering
 CREATE TABLE IF NOT EXISTS expenses (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     description VARCHAR(500) NOT NULL,
@@ -56,16 +60,55 @@ CREATE TABLE IF NOT EXISTS expenses (
     category VARCHAR(50) NOT NULL,
     expense_date DATE NOT NULL,
     user_id BIGINT NOT NULL,
+    change_version BIGINT NOT NULL DEFAULT 0,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_expense_date (expense_date),
     INDEX idx_user_date (user_id, expense_date),
+    INDEX idx_user_category_date (user_id, category, expense_date),
+    INDEX idx_user_amount (user_id, amount),
+    INDEX idx_user_change_version (user_id, change_version),
     INDEX idx_category (category),
     INDEX idx_amount (amount)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ================================================================
+-- Create Expense Monthly Rollups Table
+-- ================================================================
+-- Running totals per (user, month, category), maintained with every
+-- expense write and verified nightly against the expenses table
+CREATE TABLE IF NOT EXISTS expense_monthly_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    total_amount DECIMAL(19,2) NOT NULL,
+    expense_count BIGINT NOT NULL,
+    min_amount DECIMAL(19,2),
+    max_amount DECIMAL(19,2),
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_rollup_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT uk_rollup_user_month_category UNIQUE (user_id, month_start, category)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ================================================================
+-- Create Expense Tombstones Table
+-- ================================================================
+-- Deleted expense IDs per user and change version, reported by the
+-- delta sync endpoint and purged after the sync token retention period
+CREATE TABLE IF NOT EXISTS expense_tombstones (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expense_id BIGINT NOT NULL,
+    change_version BIGINT NOT NULL,
+    deleted_at DATETIME NOT NULL,
+    CONSTRAINT fk_tombstone_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_tombstone_user_change_version (user_id, change_version),
+    INDEX idx_tombstone_deleted_at (deleted_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- ================================================================
 -- Verify Tables Created
 -- ================================================================
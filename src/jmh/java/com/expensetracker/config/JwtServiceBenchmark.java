@@ -0,0 +1,58 @@
+package com.expensetracker.config;
+
+import com.expensetracker.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures token generation and validation as done on login and on every authenticated
+ * request, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+  @Param({"false", "true"})
+  private boolean cacheEnabled;
+
+  private JwtService jwtService;
+  private User user;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    String secret = Base64.getEncoder()
+        .encodeToString("benchmark-secret-benchmark-secret-0123456789".getBytes());
+    jwtService = new JwtService(secret, TimeUnit.HOURS.toMillis(1), cacheEnabled, 10_000,
+        new SimpleMeterRegistry());
+    user = User.builder()
+        .id(1L)
+        .email("benchmark@example.com")
+        .password("unused")
+        .firstName("Bench")
+        .lastName("Mark")
+        .build();
+    token = jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public boolean isTokenValid() {
+    return jwtService.isTokenValid(token, user);
+  }
+}
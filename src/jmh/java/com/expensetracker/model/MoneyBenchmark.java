@@ -0,0 +1,106 @@
+package com.expensetracker.model;
+
+import com.expensetracker.config.MoneyJsonComponent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating and serializing amounts as {@link BigDecimal} and as {@link Money}.
+ * Run with the gc profiler to compare the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyBenchmark {
+
+  @Param({"10000"})
+  private int rows;
+
+  private BigDecimal[] decimals;
+  private Money[] amounts;
+  private JsonFactory jsonFactory;
+  private JsonSerializer<Money> moneySerializer;
+
+  @Setup
+  public void setUp() {
+    decimals = new BigDecimal[rows];
+    amounts = new Money[rows];
+    for (int i = 0; i < rows; i++) {
+      long cents = 100 + (i * 7919L) % 1_000_000;
+      decimals[i] = BigDecimal.valueOf(cents, 2);
+      amounts[i] = Money.ofCents(cents);
+    }
+    jsonFactory = new JsonFactory();
+    moneySerializer = new MoneyJsonComponent.Serializer();
+  }
+
+  @Benchmark
+  public void aggregateBigDecimal(Blackhole blackhole) {
+    BigDecimal total = BigDecimal.ZERO;
+    BigDecimal min = decimals[0];
+    BigDecimal max = decimals[0];
+    for (BigDecimal amount : decimals) {
+      total = total.add(amount);
+      min = min.min(amount);
+      max = max.max(amount);
+    }
+    blackhole.consume(total);
+    blackhole.consume(min);
+    blackhole.consume(max);
+    blackhole.consume(total.divide(BigDecimal.valueOf(rows), 2, RoundingMode.HALF_UP));
+  }
+
+  @Benchmark
+  public void aggregateMoney(Blackhole blackhole) {
+    Money total = Money.ZERO;
+    Money min = amounts[0];
+    Money max = amounts[0];
+    for (Money amount : amounts) {
+      total = total.plus(amount);
+      min = Money.min(min, amount);
+      max = Money.max(max, amount);
+    }
+    blackhole.consume(total);
+    blackhole.consume(min);
+    blackhole.consume(max);
+    blackhole.consume(total.dividedBy(rows));
+  }
+
+  @Benchmark
+  public void serializeBigDecimal() throws IOException {
+    try (JsonGenerator generator = jsonFactory.createGenerator(OutputStream.nullOutputStream())) {
+      generator.writeStartArray();
+      for (BigDecimal amount : decimals) {
+        generator.writeNumber(amount);
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  @Benchmark
+  public void serializeMoney() throws IOException {
+    try (JsonGenerator generator = jsonFactory.createGenerator(OutputStream.nullOutputStream())) {
+      generator.writeStartArray();
+      for (Money amount : amounts) {
+        moneySerializer.serialize(amount, generator, null);
+      }
+      generator.writeEndArray();
+    }
+  }
+}
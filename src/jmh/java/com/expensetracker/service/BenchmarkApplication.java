@@ -0,0 +1,141 @@
+package com.expensetracker.service;
+
+import com.expensetracker.ExpenseTrackerApplication;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The full application context on an embedded H2 database in MySQL mode, shared by the
+ * benchmarks that go through the repositories. Seeded rows are spread over the last year,
+ * newest first, and cycle through every category.
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+  private static final String INSERT_SQL = "INSERT INTO expenses "
+      + "(description, amount, category, expense_date, user_id, change_version, created_at, "
+      + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final ConfigurableApplicationContext context;
+
+  private BenchmarkApplication(ConfigurableApplicationContext context) {
+    this.context = context;
+  }
+
+  /**
+   * Starts the application without a web server.
+   *
+   * @param extraArgs further command line properties, which override the defaults
+   * @return the running application
+   */
+  static BenchmarkApplication start(String... extraArgs) {
+    String secret = Base64.getEncoder()
+        .encodeToString("benchmark-secret-benchmark-secret-0123456789".getBytes());
+    List<String> args = new ArrayList<>(List.of(
+        "--spring.main.web-application-type=none",
+        "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.driver-class-name=org.h2.Driver",
+        "--spring.datasource.username=sa",
+        "--spring.datasource.password=",
+        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "--spring.jpa.hibernate.ddl-auto=create-drop",
+        "--server.port=0",
+        "--jwt.secret=" + secret,
+        "--jwt.expiration=3600000",
+        "--logging.level.com.expensetracker=WARN"));
+    args.addAll(Arrays.asList(extraArgs));
+    return new BenchmarkApplication(new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+        .run(args.toArray(String[]::new)));
+  }
+
+  <T> T getBean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+  /**
+   * Creates a transaction template on the application's transaction manager.
+   *
+   * @param readOnly whether the transactions are read-only
+   * @return the template
+   */
+  TransactionTemplate transactions(boolean readOnly) {
+    TransactionTemplate template =
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    template.setReadOnly(readOnly);
+    return template;
+  }
+
+  /**
+   * Hibernate statistics, whose prepared statement count feeds {@link Queries}.
+   *
+   * @return the statistics of the session factory
+   */
+  Statistics statistics() {
+    return context.getBean(EntityManagerFactory.class)
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+  }
+
+  /**
+   * Registers the user owning the seeded expenses.
+   *
+   * @return the saved user
+   */
+  User createUser() {
+    return context.getBean(UserRepository.class).save(User.builder()
+        .email("benchmark@example.com")
+        .password("unused")
+        .firstName("Bench")
+        .lastName("Mark")
+        .build());
+  }
+
+  /**
+   * Inserts expenses for a user with JDBC batches, bypassing Hibernate and its caches.
+   *
+   * @param user the owner
+   * @param rows the number of expenses
+   */
+  void seed(User user, int rows) {
+    ExpenseCategory[] categories = ExpenseCategory.values();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    LocalDate today = LocalDate.now();
+    List<Object[]> batch = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      batch.add(new Object[] {
+          "Expense number " + i,
+          BigDecimal.valueOf(100 + i % 10_000, 2),
+          categories[i % categories.length].name(),
+          Date.valueOf(today.minusDays(i % 365)),
+          user.getId(),
+          0L,
+          now,
+          now
+      });
+    }
+    context.getBean(JdbcTemplate.class).batchUpdate(INSERT_SQL, batch);
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+}
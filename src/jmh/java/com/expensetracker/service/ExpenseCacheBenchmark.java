@@ -0,0 +1,78 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the repeated date range list reads, with the Hibernate second-level and query
+ * caches off and on. Each read first looks up the user's expense version, as the service does,
+ * so the cached run still sends one statement per read. Besides throughput, JMH reports the
+ * {@link Queries} counter: the database QPS the same read load causes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExpenseCacheBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  @Param({"false", "true"})
+  private boolean cache;
+
+  private BenchmarkApplication application;
+  private ExpenseRepository expenseRepository;
+  private UserRepository userRepository;
+  private TransactionTemplate readOnly;
+  private Statistics statistics;
+  private User user;
+  private LocalDate startDate;
+  private LocalDate endDate;
+
+  @Setup
+  public void setUp() {
+    application = BenchmarkApplication.start(
+        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cache);
+
+    expenseRepository = application.getBean(ExpenseRepository.class);
+    userRepository = application.getBean(UserRepository.class);
+    readOnly = application.transactions(true);
+    statistics = application.statistics();
+
+    user = application.createUser();
+    endDate = LocalDate.now();
+    startDate = endDate.minusDays(29);
+    application.seed(user, ROWS);
+  }
+
+  @TearDown
+  public void tearDown() {
+    application.close();
+  }
+
+  @Benchmark
+  public List<ExpenseResponse> rangePage(Queries queries) {
+    return queries.count(statistics, () -> readOnly.execute(status ->
+        expenseRepository.findPageByUserAndDateRangeBefore(user, startDate, endDate, endDate,
+            Long.MAX_VALUE, userRepository.findExpenseVersion(user.getId()),
+            PageRequest.of(0, 51))));
+  }
+}
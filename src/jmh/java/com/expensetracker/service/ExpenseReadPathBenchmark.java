@@ -0,0 +1,102 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the first page of a date range list, as the list endpoint reads it, loaded as managed
+ * entities mapped with {@link ExpenseService#mapToResponse} against the DTO projection of
+ * {@link ExpenseRepository#findPageByUserAndDateRangeBefore}, against an embedded H2 database
+ * started with the full application context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExpenseReadPathBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  private static final String ENTITY_QUERY = "SELECT e FROM Expense e WHERE e.user = :user "
+      + "AND e.expenseDate BETWEEN :startDate AND :endDate "
+      + "AND e.expenseDate <= :cursorDate AND (e.expenseDate < :cursorDate OR e.id < :cursorId) "
+      + "AND e.changeVersion <= :version ORDER BY e.expenseDate DESC, e.id DESC";
+
+  @Param({"50", "500"})
+  private int pageSize;
+
+  private BenchmarkApplication application;
+  private ExpenseRepository expenseRepository;
+  private EntityManager entityManager;
+  private TransactionTemplate readWrite;
+  private TransactionTemplate readOnly;
+  private User user;
+  private LocalDate startDate;
+  private LocalDate endDate;
+
+  @Setup
+  public void setUp() {
+    application = BenchmarkApplication.start(
+        // Measures the database read itself; ExpenseCacheBenchmark covers the query cache.
+        "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+
+    expenseRepository = application.getBean(ExpenseRepository.class);
+    entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+        application.getBean(EntityManagerFactory.class));
+    readWrite = application.transactions(false);
+    readOnly = application.transactions(true);
+
+    user = application.createUser();
+    endDate = LocalDate.now();
+    startDate = endDate.minusDays(364);
+    application.seed(user, ROWS);
+  }
+
+  @TearDown
+  public void tearDown() {
+    application.close();
+  }
+
+  @Benchmark
+  public List<ExpenseResponse> entityRead() {
+    return readWrite.execute(status -> entityManager.createQuery(ENTITY_QUERY, Expense.class)
+        .setParameter("user", user)
+        .setParameter("startDate", startDate)
+        .setParameter("endDate", endDate)
+        .setParameter("cursorDate", endDate)
+        .setParameter("cursorId", Long.MAX_VALUE)
+        .setParameter("version", Long.MAX_VALUE)
+        .setMaxResults(pageSize + 1)
+        .getResultList()
+        .stream()
+        .map(ExpenseService::mapToResponse)
+        .collect(Collectors.toList()));
+  }
+
+  @Benchmark
+  public List<ExpenseResponse> projectionRead() {
+    return readOnly.execute(status ->
+        expenseRepository.findPageByUserAndDateRangeBefore(user, startDate, endDate, endDate,
+            Long.MAX_VALUE, Long.MAX_VALUE, PageRequest.of(0, pageSize + 1)));
+  }
+}
@@ -0,0 +1,95 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.ExpenseJsonWriter;
+import com.expensetracker.config.MoneyJsonComponent;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures mapping expense entities to responses and serializing response lists to JSON, once
+ * through bean serialization with the Jackson settings Spring Boot applies and once streamed
+ * with {@link ExpenseJsonWriter} as the JSON export does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExpenseSerializationBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int rows;
+
+  private List<Expense> expenses;
+  private List<ExpenseResponse> responses;
+  private ObjectMapper objectMapper;
+
+  @Setup
+  public void setUp() {
+    ExpenseCategory[] categories = ExpenseCategory.values();
+    LocalDate today = LocalDate.now();
+    expenses = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      expenses.add(Expense.builder()
+          .id((long) i + 1)
+          .description("Expense number " + i)
+          .amount(Money.ofCents(100 + i % 10_000))
+          .category(categories[i % categories.length])
+          .expenseDate(today.minusDays(i % 365))
+          .build());
+    }
+    responses = mapToResponses();
+    objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .addModule(new SimpleModule()
+            .addSerializer(Money.class, new MoneyJsonComponent.Serializer()))
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+  }
+
+  @Benchmark
+  public List<ExpenseResponse> mapToResponses() {
+    return expenses.stream()
+        .map(ExpenseService::mapToResponse)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public void serializeResponses() throws IOException {
+    objectMapper.writeValue(OutputStream.nullOutputStream(), responses);
+  }
+
+  @Benchmark
+  public void streamResponses() throws IOException {
+    try (JsonGenerator generator =
+        objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+      ExpenseJsonWriter writer = new ExpenseJsonWriter(generator);
+      generator.writeStartArray();
+      for (ExpenseResponse response : responses) {
+        writer.write(response);
+      }
+      generator.writeEndArray();
+    }
+  }
+}
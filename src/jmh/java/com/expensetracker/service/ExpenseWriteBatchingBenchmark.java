@@ -0,0 +1,80 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ExpenseRepository;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares flushing a transaction that updates many expenses with the JDBC batching and
+ * statement ordering settings of the production profile against Hibernate's defaults, on the
+ * embedded H2 database in MySQL mode. The MySQL driver and Hikari options of the profile have no
+ * H2 equivalent and are not covered. Besides throughput, JMH reports the {@link Queries}
+ * counter: JDBC statements sent per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExpenseWriteBatchingBenchmark {
+
+  @Param({"false", "true"})
+  private boolean batching;
+
+  @Param({"500"})
+  private int rows;
+
+  private BenchmarkApplication application;
+  private ExpenseRepository expenseRepository;
+  private TransactionTemplate readWrite;
+  private Statistics statistics;
+  private List<Long> ids;
+  private long round;
+
+  @Setup
+  public void setUp() {
+    application = BenchmarkApplication.start(
+        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (batching ? 50 : 1),
+        "--spring.jpa.properties.hibernate.order_inserts=" + batching,
+        "--spring.jpa.properties.hibernate.order_updates=" + batching);
+
+    expenseRepository = application.getBean(ExpenseRepository.class);
+    readWrite = application.transactions(false);
+    statistics = application.statistics();
+
+    application.seed(application.createUser(), rows);
+    ids = application.getBean(JdbcTemplate.class)
+        .queryForList("SELECT id FROM expenses ORDER BY id", Long.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    application.close();
+  }
+
+  @Benchmark
+  public void updateExpenses(Queries queries) {
+    String description = "Updated in round " + round++;
+    queries.count(statistics, () -> readWrite.execute(status -> {
+      for (Expense expense : expenseRepository.findAllById(ids)) {
+        expense.setDescription(description);
+        expense.setChangeVersion(round);
+      }
+      return null;
+    }));
+  }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.service;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Supplier;
+
+/**
+ * JDBC statements sent by the benchmark thread, reported by JMH per unit of time next to the
+ * throughput: the database QPS a load causes.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class Queries {
+
+  public long statements;
+
+  @Setup(Level.Iteration)
+  public void reset() {
+    statements = 0;
+  }
+
+  /**
+   * Runs an operation, adding the statements Hibernate prepared meanwhile to the counter.
+   *
+   * @param statistics the statistics of the session factory
+   * @param operation the measured operation
+   * @return the operation's result
+   */
+  <T> T count(Statistics statistics, Supplier<T> operation) {
+    long before = statistics.getPrepareStatementCount();
+    T result = operation.get();
+    statements += statistics.getPrepareStatementCount() - before;
+    return result;
+  }
+}
@@ -2,8 +2,10 @@ package com.expensetracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ExpenseTrackerApplication {
     public static void main(String[] args) {
         SpringApplication.run(ExpenseTrackerApplication.class, args);
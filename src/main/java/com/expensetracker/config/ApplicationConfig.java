@@ -1,7 +1,12 @@
 package com.expensetracker.config;
 
 import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,16 +18,38 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
     
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${security.user-cache.ttl:5m}")
+    private Duration userCacheTtl;
+    
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long userCacheMaximumSize;
+    
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+    
+    @Value("${security.password.hashing.threads:0}")
+    private int hashingThreads;
+    
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
     
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+    public CachedUserDetailsService userDetailsService() {
+        UserDetailsService repositoryLookup = username -> userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        CachedUserDetailsService service =
+                new CachedUserDetailsService(repositoryLookup, userCacheTtl, userCacheMaximumSize);
+        CaffeineCacheMetrics.monitor(meterRegistry, service.getCache(), "security.user-details");
+        return service;
     }
     
     @Bean
@@ -40,6 +67,12 @@ public class ApplicationConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(
+                new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry),
+                threads, hashingQueueCapacity);
+        new ExecutorServiceMetrics(encoder.getExecutor(), "password.hashing", Tags.empty())
+                .bindTo(meterRegistry);
+        return encoder;
     }
 }
@@ -0,0 +1,57 @@
+package com.expensetracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+
+/**
+ * Bounded, time-limited cache in front of a {@link UserDetailsService}.
+ * Entries expire after a fixed TTL and are evicted by size; unknown users are never cached.
+ * Hit and miss counts are recorded and available through {@link #stats()}.
+ */
+@Slf4j
+public class CachedUserDetailsService implements UserDetailsService {
+    
+    private final UserDetailsService delegate;
+    private final Cache<String, UserDetails> cache;
+    
+    public CachedUserDetailsService(UserDetailsService delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+    
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return cache.get(username, delegate::loadUserByUsername);
+    }
+    
+    /**
+     * Drops the cached entry of a user, e.g. after the user row changed.
+     */
+    public void evict(String username) {
+        log.debug("Evicting cached user details: {}", username);
+        cache.invalidate(username);
+    }
+    
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+    
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    public Cache<String, UserDetails> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConcurrencyLimitingDataSource} in front of the Hikari pool, sized to the pool's
+ * maximum, when {@code expense.jdbc.concurrency-gate.enabled} is set. Meant for the virtual
+ * thread mode, where request concurrency is no longer bounded by the servlet thread pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "expense.jdbc.concurrency-gate.enabled", havingValue = "true")
+public class DataSourceConcurrencyConfig {
+    
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyGate(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        Duration acquireTimeout = environment.getProperty(
+                "expense.jdbc.concurrency-gate.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                ConcurrencyLimitingDataSource gated = new ConcurrencyLimitingDataSource(
+                        hikari, hikari.getMaximumPoolSize(), acquireTimeout);
+                log.info("Limiting concurrent JDBC use of {} to {} connections", beanName,
+                        gated.getMaxConcurrency());
+                // Tagged like Hikari's own pool metrics, since a replica adds a second gated pool
+                String pool = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("jdbc.gate.active", gated, ConcurrencyLimitingDataSource::getActive)
+                            .description("Connections currently checked out through the gate")
+                            .tag("pool", pool)
+                            .register(registry);
+                    Gauge.builder("jdbc.gate.waiting", gated, ConcurrencyLimitingDataSource::getWaiting)
+                            .description("Callers waiting for a connection permit")
+                            .tag("pool", pool)
+                            .register(registry);
+                });
+                return gated;
+            }
+        };
+    }
+}
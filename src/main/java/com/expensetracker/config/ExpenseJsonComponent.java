@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * JSON mapping of {@link ExpenseResponse} through {@link ExpenseJsonWriter}, so pages, search
+ * results and change events containing expenses skip bean serialization.
+ */
+@JsonComponent
+public class ExpenseJsonComponent {
+
+    public static class Serializer extends JsonSerializer<ExpenseResponse> {
+
+        @Override
+        public void serialize(ExpenseResponse value, JsonGenerator generator,
+                SerializerProvider provider) throws IOException {
+            // One writer, with its scratch buffer, per serialization call rather than per expense
+            ExpenseJsonWriter writer = (ExpenseJsonWriter) provider.getAttribute(ExpenseJsonWriter.class);
+            if (writer == null || !writer.writesTo(generator)) {
+                writer = new ExpenseJsonWriter(generator);
+                provider.setAttribute(ExpenseJsonWriter.class, writer);
+            }
+            writer.write(value);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.expensetracker.config;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes expenses field by field to a {@link JsonGenerator}, producing the same JSON as bean
+ * serialization without going through databind. Field names are pre-encoded, and dates and
+ * amounts are formatted into a char buffer owned by the writer instead of intermediate Strings,
+ * so one writer can stream any number of rows without allocating per row. Not thread-safe.
+ */
+public final class ExpenseJsonWriter {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString CATEGORY = new SerializedString("category");
+    private static final SerializableString EXPENSE_DATE = new SerializedString("expenseDate");
+
+    /** Large enough for an amount and for any ISO date, including expanded years. */
+    private static final int BUFFER_LENGTH = Math.max(Money.MAX_LENGTH, 16);
+
+    private final JsonGenerator generator;
+    private final char[] buffer = new char[BUFFER_LENGTH];
+
+    public ExpenseJsonWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Whether this writer targets the given generator.
+     *
+     * @param generator the generator
+     * @return true if expenses written here go to that generator
+     */
+    public boolean writesTo(JsonGenerator generator) {
+        return this.generator == generator;
+    }
+
+    public void write(ExpenseResponse expense) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (expense.getId() != null) {
+            generator.writeNumber(expense.getId());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(expense.getDescription());
+        generator.writeFieldName(AMOUNT);
+        if (expense.getAmount() != null) {
+            MoneyJsonComponent.write(generator, expense.getAmount(), buffer);
+        } else {
+            generator.writeNull();
+        }
+        generator.writeFieldName(CATEGORY);
+        generator.writeString(expense.getCategory() != null ? expense.getCategory().name() : null);
+        generator.writeFieldName(EXPENSE_DATE);
+        if (expense.getExpenseDate() != null) {
+            generator.writeString(buffer, 0, formatDate(expense.getExpenseDate(), buffer, 0));
+        } else {
+            generator.writeNull();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a date in ISO-8601 form, e.g. {@code 2024-03-07}, as {@link LocalDate#toString()}
+     * does, without creating a String for four-digit years.
+     *
+     * @param date the date
+     * @param buffer the destination, with at least 16 chars from the offset
+     * @param offset the index of the first char to write
+     * @return the number of chars written
+     */
+    public static int formatDate(LocalDate date, char[] buffer, int offset) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            String text = date.toString();
+            text.getChars(0, text.length(), buffer, offset);
+            return text.length();
+        }
+        int month = date.getMonthValue();
+        int day = date.getDayOfMonth();
+        buffer[offset] = (char) ('0' + year / 1000);
+        buffer[offset + 1] = (char) ('0' + year / 100 % 10);
+        buffer[offset + 2] = (char) ('0' + year / 10 % 10);
+        buffer[offset + 3] = (char) ('0' + year % 10);
+        buffer[offset + 4] = '-';
+        buffer[offset + 5] = (char) ('0' + month / 10);
+        buffer[offset + 6] = (char) ('0' + month % 10);
+        buffer[offset + 7] = '-';
+        buffer[offset + 8] = (char) ('0' + day / 10);
+        buffer[offset + 9] = (char) ('0' + day % 10);
+        return 10;
+    }
+}
@@ -34,6 +34,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final VerifiedClaims claims;
         final String userEmail;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -43,12 +44,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         try {
             jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt);
+            claims = jwtService.verify(jwt);
+            userEmail = claims.getSubject();
             
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -1,32 +1,84 @@
 package com.expensetracker.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import javax.crypto.SecretKey;
 
 /**
  * Service for handling JWT token operations including generation, validation, and extraction.
  * This service manages JWT tokens for user authentication and authorization.
+ *
+ * <p>The signing key and the parser are built once at startup. Each token is parsed and
+ * verified at most once per call through {@link #verify(String)}; when the verification cache
+ * is enabled, repeated calls with the same token skip signature verification until it expires.
+ * Generation and verification are timed as {@code jwt.generate} and {@code jwt.verify}, the
+ * latter tagged with whether the verification cache was hit.
  */
 @Service
 public class JwtService {
 
-  @Value("${jwt.secret}")
-  private String secretKey;
+  private final long jwtExpiration;
+  private final SecretKey signingKey;
+  private final JwtParser parser;
+  private final Cache<String, VerifiedClaims> verifiedTokens;
+  private final Timer generateTimer;
+  private final Timer verifyTimer;
+  private final Timer cachedVerifyTimer;
 
-  @Value("${jwt.expiration}")
-  private long jwtExpiration;
+  public JwtService(
+      @Value("${jwt.secret}") String secretKey,
+      @Value("${jwt.expiration}") long jwtExpiration,
+      @Value("${jwt.cache.enabled:false}") boolean cacheEnabled,
+      @Value("${jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+      MeterRegistry meterRegistry) {
+    this.jwtExpiration = jwtExpiration;
+    this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    this.parser = Jwts.parser().verifyWith(signingKey).build();
+    this.verifiedTokens = cacheEnabled
+        ? Caffeine.newBuilder()
+            .maximumSize(cacheMaximumSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build()
+        : null;
+    if (verifiedTokens != null) {
+      CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+    }
+    this.generateTimer = Timer.builder("jwt.generate")
+        .description("Time spent building and signing tokens")
+        .register(meterRegistry);
+    this.verifyTimer = Timer.builder("jwt.verify")
+        .description("Time spent parsing and verifying tokens")
+        .tag("cache", cacheEnabled ? "miss" : "disabled")
+        .register(meterRegistry);
+    this.cachedVerifyTimer = Timer.builder("jwt.verify")
+        .description("Time spent parsing and verifying tokens")
+        .tag("cache", "hit")
+        .register(meterRegistry);
+  }
     
   /**
    * Extracts the username (subject) from the JWT token.
@@ -47,8 +99,30 @@ public class JwtService {
    * @return the extracted claim value
    */
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
+    return claimsResolver.apply(verify(token).getClaims());
+  }
+
+  /**
+   * Parses the token and verifies its signature and expiration in a single pass.
+   *
+   * @param token the JWT token
+   * @return the verified claims
+   * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+   */
+  public VerifiedClaims verify(String token) {
+    if (verifiedTokens == null) {
+      return verifyTimer.record(() -> parse(token));
+    }
+    long start = System.nanoTime();
+    String cacheKey = hash(token);
+    VerifiedClaims cached = verifiedTokens.getIfPresent(cacheKey);
+    if (cached != null && !cached.isExpired()) {
+      cachedVerifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return cached;
+    }
+    VerifiedClaims verified = verifyTimer.record(() -> parse(token));
+    verifiedTokens.put(cacheKey, verified);
+    return verified;
   }
     
   /**
@@ -69,7 +143,7 @@ public class JwtService {
    * @return the generated JWT token
    */
   public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-    return buildToken(extraClaims, userDetails, jwtExpiration);
+    return generateTimer.record(() -> buildToken(extraClaims, userDetails, jwtExpiration));
   }
     
   private String buildToken(
@@ -79,7 +153,7 @@ public class JwtService {
         .setSubject(userDetails.getUsername())
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
     
@@ -91,28 +165,62 @@ public class JwtService {
    * @return true if the token is valid, false otherwise
    */
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    String username = extractUsername(token);
-    return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    return isTokenValid(verify(token), userDetails);
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  /**
+   * Validates already verified claims against the given user details.
+   *
+   * @param claims the verified claims
+   * @param userDetails the user details to validate against
+   * @return true if the claims belong to the user and have not expired
+   */
+  public boolean isTokenValid(VerifiedClaims claims, UserDetails userDetails) {
+    return claims.getSubject().equals(userDetails.getUsername()) && !claims.isExpired();
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  /**
+   * Returns the cache of verified tokens, or null when caching is disabled.
+   *
+   * @return the verification cache
+   */
+  public Cache<String, VerifiedClaims> getVerifiedTokenCache() {
+    return verifiedTokens;
   }
     
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser()
-        .setSigningKey(getSignInKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+  private VerifiedClaims parse(String token) {
+    return new VerifiedClaims(parser.parseSignedClaims(token).getPayload());
   }
 
-  private Key getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /** Keeps each cached token exactly until its own expiration claim. */
+  private static final class UntilTokenExpiry implements Expiry<String, VerifiedClaims> {
+
+    @Override
+    public long expireAfterCreate(String key, VerifiedClaims value, long currentTime) {
+      long remainingMillis = value.getExpiration().getTime() - System.currentTimeMillis();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, VerifiedClaims value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, VerifiedClaims value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
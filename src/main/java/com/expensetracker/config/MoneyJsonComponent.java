@@ -0,0 +1,60 @@
+package com.expensetracker.config;
+
+import com.expensetracker.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * JSON mapping of {@link Money} as a plain decimal number such as {@code 12.50}, the same
+ * output a DECIMAL(19,2) {@code BigDecimal} produced, written to text formats without creating one.
+ */
+@JsonComponent
+public class MoneyJsonComponent {
+
+    public static class Serializer extends JsonSerializer<Money> {
+        
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            // The scratch buffer is shared by all amounts of one serialization call
+            char[] buffer = (char[]) provider.getAttribute(MoneyJsonComponent.class);
+            if (buffer == null) {
+                buffer = new char[Money.MAX_LENGTH];
+                provider.setAttribute(MoneyJsonComponent.class, buffer);
+            }
+            write(generator, value, buffer);
+        }
+    }
+
+    /**
+     * Writes an amount as a number. Text formats get the digits from the buffer; binary formats
+     * such as CBOR cannot take preformatted digits and get an exact decimal instead.
+     *
+     * @param generator the generator
+     * @param value the amount
+     * @param buffer a scratch buffer of at least {@link Money#MAX_LENGTH} chars
+     * @throws IOException if writing fails
+     */
+    public static void write(JsonGenerator generator, Money value, char[] buffer) throws IOException {
+        if (generator.canWriteFormattedNumbers()) {
+            generator.writeNumber(buffer, 0, value.format(buffer, 0));
+        } else {
+            generator.writeNumber(value.toBigDecimal());
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Money> {
+        
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return Money.of(parser.getDecimalValue());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to a replica and everything else to the primary.
+ * The transaction's read-only flag is only known once it has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers fetching
+ * the physical connection until the first statement.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(false, primary, true, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,60 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to a MySQL read replica when
+ * {@code expense.datasource.replica.jdbc-url} is set. The primary pool is built from
+ * {@code spring.datasource} as Spring Boot would; the replica pool binds
+ * {@code expense.datasource.replica}, taking the primary credentials unless overridden.
+ * Replication lag is visible to read-only transactions, so the replica should be close behind;
+ * it is kept out of the Hibernate caches by {@link ReplicaCacheModeJpaDialect}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "expense.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("expense.datasource.replica")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setUsername(properties.determineUsername());
+        replica.setPassword(properties.determinePassword());
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica) {
+        log.info("Routing read-only transactions to the read replica");
+        return new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primary, replica));
+    }
+
+    @Bean
+    public TransactionManagerCustomizer<JpaTransactionManager> replicaCacheModeCustomizer() {
+        return transactionManager -> transactionManager.setJpaDialect(new ReplicaCacheModeJpaDialect());
+    }
+}
@@ -0,0 +1,51 @@
+package com.expensetracker.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps read-only transactions, which {@link ReadOnlyRoutingDataSource} sends to the replica, from
+ * filling the Hibernate second-level and query caches. Their sessions still read cached entries,
+ * which were all put by transactions on the primary, but never put what they load: replica rows
+ * may lag behind, and once cached they would be served to readers of the primary as well.
+ */
+public class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReplicaTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData replica) {
+            replica.session.setCacheMode(replica.previousCacheMode);
+            super.cleanupTransaction(replica.delegate);
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    /** Session state to restore when the session outlives the transaction. */
+    @RequiredArgsConstructor
+    private static final class ReplicaTransactionData {
+        private final Object delegate;
+        private final Session session;
+        private final CacheMode previousCacheMode;
+    }
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many rows each repository query method returns as the {@code repository.rows}
+ * distribution. Query latency itself is timed by Spring Boot as
+ * {@code spring.data.repository.invocations}; streamed results are not counted.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    
+    @AfterReturning(pointcut = "execution(* com.expensetracker.repository..*(..))", returning = "result")
+    public void recordRows(JoinPoint joinPoint, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        summaries.computeIfAbsent(method, this::register).record(rows);
+    }
+    
+    private DistributionSummary register(Method method) {
+        return DistributionSummary.builder("repository.rows")
+                .description("Rows returned per repository query")
+                .baseUnit("rows")
+                .tag("repository", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .register(meterRegistry);
+    }
+}
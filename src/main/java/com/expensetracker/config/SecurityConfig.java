@@ -1,14 +1,20 @@
 package com.expensetracker.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -22,6 +28,13 @@ public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final AuthenticationProvider authenticationProvider;
+    private final Environment environment;
+    
+    @Value("${server.port:8080}")
+    private int serverPort;
+    
+    @Value("${management.server.port:${server.port:8080}}")
+    private int managementPort;
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -29,8 +42,10 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                             "/auth/**", 
+                            "/actuator/health",
                             "/h2-console/**",
                             "/",
                             "/index.html",
@@ -39,6 +54,7 @@ public class SecurityConfig {
                             "/js/**",
                             "/*.html"
                         ).permitAll()
+                        .requestMatchers(prometheusScrape()).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -53,6 +69,21 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * Matches unauthenticated Prometheus scrapes. They are only accepted on a separate
+     * management port, which is expected to be unreachable from the internet, or on any port
+     * with the dev profile. Elsewhere the metrics endpoint requires authentication.
+     */
+    private RequestMatcher prometheusScrape() {
+        RequestMatcher endpoint = new AntPathRequestMatcher("/actuator/prometheus");
+        if (environment.acceptsProfiles(Profiles.of("dev"))) {
+            return endpoint;
+        }
+        return request -> managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && endpoint.matches(request);
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -65,7 +96,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Disposition", "ETag"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,26 @@
+package com.expensetracker.config;
+
+import com.expensetracker.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that evicts a user from the principal cache whenever the user row is
+ * updated or deleted. The cache is looked up lazily because this listener is created while
+ * the entity manager factory, which the cache depends on, is still being built.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+    
+    private final ObjectProvider<CachedUserDetailsService> userDetailsService;
+    
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userDetailsService.ifAvailable(cache -> cache.evict(user.getEmail()));
+    }
+}
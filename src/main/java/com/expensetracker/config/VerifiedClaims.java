@@ -0,0 +1,35 @@
+package com.expensetracker.config;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has already been verified by {@link JwtService}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedClaims {
+
+  private final Claims claims;
+
+  public String getSubject() {
+    return claims.getSubject();
+  }
+
+  public Date getExpiration() {
+    return claims.getExpiration();
+  }
+
+  /**
+   * Checks the expiration against the current time. A verified token can still expire while
+   * it sits in the verification cache.
+   *
+   * @return true if the token has expired
+   */
+  public boolean isExpired() {
+    return claims.getExpiration().before(new Date());
+  }
+}
@@ -0,0 +1,36 @@
+package com.expensetracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Offers CBOR as a compact alternative to JSON for clients sending
+ * {@code Accept: application/cbor}. The CBOR mapper comes from Spring Boot's Jackson builder, so
+ * it shares the JSON mapper's modules and settings, including the {@link MoneyJsonComponent} and
+ * {@link ExpenseJsonComponent} serializers. The converter is placed last so clients accepting any
+ * media type keep getting JSON.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public WireFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ObjectMapper cborMapper = objectMapperBuilder.getObject().factory(new CBORFactory()).build();
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+    }
+}
@@ -1,17 +1,56 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.ExpenseBatchRequest;
+import com.expensetracker.dto.ExpenseBatchResponse;
+import com.expensetracker.dto.ExpenseChangesResponse;
+import com.expensetracker.dto.ExpenseFilter;
+import com.expensetracker.dto.ExpensePageResponse;
 import com.expensetracker.dto.ExpenseRequest;
 import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ExpenseImportResponse;
+import com.expensetracker.dto.ExpenseSearchResponse;
+import com.expensetracker.dto.ExpenseSortField;
+import com.expensetracker.dto.ExpenseSummaryResponse;
+import com.expensetracker.dto.ExportFormat;
+import com.expensetracker.dto.SummaryBucket;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.service.ExpenseBatchService;
+import com.expensetracker.service.ExpenseEventBroadcaster;
+import com.expensetracker.service.ExpenseExportService;
+import com.expensetracker.service.ExpenseImportService;
+import com.expensetracker.service.ExpenseQueryService;
+import com.expensetracker.service.ExpenseSearchService;
 import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.ExpenseSyncService;
+import com.expensetracker.service.ExpenseVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing expense resources.
@@ -22,45 +61,254 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ExpenseController {
 
+  /** Lets browsers keep expense reads but revalidate them with If-None-Match every time. */
+  private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
   private final ExpenseService expenseService;
+  private final ExpenseExportService expenseExportService;
+  private final ExpenseImportService expenseImportService;
+  private final ExpenseBatchService expenseBatchService;
+  private final ExpenseVersionService expenseVersionService;
+  private final ExpenseSyncService expenseSyncService;
+  private final ExpenseEventBroadcaster expenseEventBroadcaster;
+  private final ExpenseSearchService expenseSearchService;
+  private final ExpenseQueryService expenseQueryService;
     
   /**
-   * Retrieves expenses with optional filtering.
+   * Retrieves a page of expenses with optional filtering, newest first.
    *
    * @param filter optional filter (week, month, 3months)
    * @param startDate optional start date for custom range
    * @param endDate optional end date for custom range
-   * @return list of expenses matching the filter criteria
+   * @param cursor optional continuation token returned as nextCursor by the previous page
+   * @param size optional page size
+   * @param webRequest the current request, checked for If-None-Match
+   * @return page of expenses matching the filter criteria, or 304 if unchanged
    */
   @GetMapping
-  public ResponseEntity<List<ExpenseResponse>> getAllExpenses(
+  public ResponseEntity<ExpensePageResponse> getAllExpenses(
       @RequestParam(required = false) String filter,
       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
           LocalDate startDate,
       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-          LocalDate endDate) {
+          LocalDate endDate,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest webRequest) {
+    if (notModified(expenseVersionService.currentDatedEtag(representation(webRequest)),
+        webRequest)) {
+      return null;
+    }
+    ExpensePageResponse page;
     if (filter != null) {
-      return switch (filter.toLowerCase()) {
-        case "week" -> ResponseEntity.ok(expenseService.getExpensesPastWeek());
-        case "month" -> ResponseEntity.ok(expenseService.getExpensesPastMonth());
-        case "3months" -> ResponseEntity.ok(expenseService.getExpensesPast3Months());
-        default -> ResponseEntity.ok(expenseService.getAllExpenses());
+      page = switch (filter.toLowerCase()) {
+        case "week" -> expenseService.getExpensesPastWeek(cursor, size);
+        case "month" -> expenseService.getExpensesPastMonth(cursor, size);
+        case "3months" -> expenseService.getExpensesPast3Months(cursor, size);
+        default -> expenseService.getAllExpenses(cursor, size);
       };
     } else if (startDate != null && endDate != null) {
-      return ResponseEntity.ok(expenseService.getExpensesByDateRange(startDate, endDate));
+      page = expenseService.getExpensesByDateRange(startDate, endDate, cursor, size);
+    } else {
+      page = expenseService.getAllExpenses(cursor, size);
     }
-    return ResponseEntity.ok(expenseService.getAllExpenses());
+    return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(page);
   }
     
+  /**
+   * Retrieves totals, counts, minimums, maximums and averages overall, per category and per
+   * time bucket, using the same filter options as the expense list.
+   *
+   * @param filter optional filter (week, month, 3months)
+   * @param startDate optional start date for custom range
+   * @param endDate optional end date for custom range
+   * @param bucket period granularity (day, week, month), defaults to month
+   * @param webRequest the current request, checked for If-None-Match
+   * @return the expense summary, or 304 if unchanged
+   */
+  @GetMapping("/summary")
+  public ResponseEntity<ExpenseSummaryResponse> getSummary(
+      @RequestParam(required = false) String filter,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate endDate,
+      @RequestParam(defaultValue = "month") String bucket,
+      WebRequest webRequest) {
+    SummaryBucket summaryBucket = parseBucket(bucket);
+    if (notModified(expenseVersionService.currentDatedEtag(representation(webRequest)),
+        webRequest)) {
+      return null;
+    }
+    LocalDate today = LocalDate.now();
+    ExpenseSummaryResponse summary;
+    if (filter != null) {
+      summary = switch (filter.toLowerCase()) {
+        case "week" -> expenseService.getSummary(today.minusWeeks(1), today, summaryBucket);
+        case "month" -> expenseService.getSummary(today.minusMonths(1), today, summaryBucket);
+        case "3months" -> expenseService.getSummary(today.minusMonths(3), today, summaryBucket);
+        default -> expenseService.getSummary(null, null, summaryBucket);
+      };
+    } else if (startDate != null && endDate != null) {
+      summary = expenseService.getSummary(startDate, endDate, summaryBucket);
+    } else {
+      summary = expenseService.getSummary(null, null, summaryBucket);
+    }
+    return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(summary);
+  }
+
+  /**
+   * Retrieves a page of expenses matching any combination of criteria, in the requested order.
+   *
+   * @param category optional categories, repeated or comma-separated; matches any of them
+   * @param minAmount optional inclusive minimum amount
+   * @param maxAmount optional inclusive maximum amount
+   * @param startDate optional inclusive start date
+   * @param endDate optional inclusive end date
+   * @param text optional case-insensitive substring of the description
+   * @param sort sort column (date, amount), defaults to date
+   * @param direction sort direction (asc, desc), defaults to desc
+   * @param cursor optional continuation token returned as nextCursor by the previous page
+   * @param size optional page size
+   * @param webRequest the current request, checked for If-None-Match
+   * @return page of matching expenses, or 304 if unchanged
+   */
+  @GetMapping("/query")
+  public ResponseEntity<ExpensePageResponse> queryExpenses(
+      @RequestParam(required = false) List<String> category,
+      @RequestParam(required = false) BigDecimal minAmount,
+      @RequestParam(required = false) BigDecimal maxAmount,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate endDate,
+      @RequestParam(required = false) String text,
+      @RequestParam(defaultValue = "date") String sort,
+      @RequestParam(defaultValue = "desc") String direction,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      WebRequest webRequest) {
+    ExpenseFilter filter = ExpenseFilter.builder()
+        .categories(category == null ? null : category.stream()
+            .map(this::parseCategory)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(ExpenseCategory.class))))
+        .minAmount(minAmount == null ? null : parseAmount(minAmount))
+        .maxAmount(maxAmount == null ? null : parseAmount(maxAmount))
+        .startDate(startDate)
+        .endDate(endDate)
+        .text(text)
+        .sortField(parseSortField(sort))
+        .ascending(parseAscending(direction))
+        .build();
+    if (notModified(expenseVersionService.currentEtag(representation(webRequest)),
+        webRequest)) {
+      return null;
+    }
+    ExpensePageResponse page = expenseQueryService.query(filter, cursor, size);
+    return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(page);
+  }
+
+  /**
+   * Searches expense descriptions. Each word of the query matches words starting with it, and
+   * results are ranked by relevance, then newest first.
+   *
+   * @param q the search text
+   * @param startDate optional inclusive start date
+   * @param endDate optional inclusive end date
+   * @param category optional category
+   * @param minAmount optional inclusive minimum amount
+   * @param maxAmount optional inclusive maximum amount
+   * @param limit maximum number of results, defaults to the configured page size
+   * @return the best ranked matches and the total number of matches
+   */
+  @GetMapping("/search")
+  public ResponseEntity<ExpenseSearchResponse> searchExpenses(
+      @RequestParam String q,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate endDate,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) BigDecimal minAmount,
+      @RequestParam(required = false) BigDecimal maxAmount,
+      @RequestParam(required = false) Integer limit) {
+    ExpenseSearchResponse results = expenseSearchService.search(q, startDate, endDate,
+        category == null ? null : parseCategory(category),
+        minAmount == null ? null : parseAmount(minAmount),
+        maxAmount == null ? null : parseAmount(maxAmount), limit);
+    return ResponseEntity.ok(results);
+  }
+
+  /**
+   * Retrieves the expenses created, updated or deleted since a previous sync, one page at a
+   * time. Clients repeat the request with nextToken while hasMore is set.
+   *
+   * @param since optional token returned as nextToken by the previous response; omit for a full
+   *     snapshot
+   * @return the changes and the token for the next request, or 410 if the token expired
+   */
+  @GetMapping("/changes")
+  public ResponseEntity<ExpenseChangesResponse> getChanges(
+      @RequestParam(required = false) String since) {
+    return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+        .body(expenseSyncService.getChanges(since));
+  }
+
+  /**
+   * Opens a Server-Sent Events stream of the current user's expense changes.
+   * Each event carries the change version as its id; a client that reconnects should catch up
+   * through the changes endpoint before relying on the stream again.
+   *
+   * @return the event stream, or 429 if the user has too many open streams
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges() {
+    return expenseEventBroadcaster.subscribe();
+  }
+
+  /**
+   * Streams the expenses as a CSV, NDJSON or JSON array download without buffering the full
+   * result.
+   *
+   * @param format output format (csv, ndjson, json), defaults to csv
+   * @param startDate optional start date for custom range
+   * @param endDate optional end date for custom range
+   * @param response the servlet response written to
+   * @throws IOException if writing the response fails
+   */
+  @GetMapping("/export")
+  public void exportExpenses(
+      @RequestParam(defaultValue = "csv") String format,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate endDate,
+      HttpServletResponse response) throws IOException {
+    ExportFormat exportFormat = parseExportFormat(format);
+    expenseExportService.validateRange(startDate, endDate);
+    response.setContentType(exportFormat.getContentType());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        "attachment; filename=\"expenses." + exportFormat.getFileExtension() + "\"");
+    expenseExportService.export(exportFormat, startDate, endDate, response.getOutputStream());
+  }
+
   /**
    * Retrieves a specific expense by ID.
    *
    * @param id the expense ID
-   * @return the expense details
+   * @param webRequest the current request, checked for If-None-Match
+   * @return the expense details, or 304 if unchanged
    */
   @GetMapping("/{id}")
-  public ResponseEntity<ExpenseResponse> getExpenseById(@PathVariable Long id) {
-    return ResponseEntity.ok(expenseService.getExpenseById(id));
+  public ResponseEntity<ExpenseResponse> getExpenseById(
+      @PathVariable Long id, WebRequest webRequest) {
+    if (notModified(expenseVersionService.currentEtag(representation(webRequest)),
+        webRequest)) {
+      return null;
+    }
+    return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+        .body(expenseService.getExpenseById(id));
   }
 
   /**
@@ -74,6 +322,46 @@ public class ExpenseController {
     return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.createExpense(request));
   }
 
+  /**
+   * Imports a JSON array of expenses in batches.
+   *
+   * @param request the servlet request whose body is read as a stream
+   * @return the import report with per-row errors
+   * @throws IOException if reading the request body fails
+   */
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ExpenseImportResponse> importJson(HttpServletRequest request)
+      throws IOException {
+    return ResponseEntity.ok(expenseImportService.importJson(request.getInputStream()));
+  }
+
+  /**
+   * Imports expenses from an uploaded CSV file in batches.
+   *
+   * @param file the CSV file with a description,amount,category,expenseDate header
+   * @return the import report with per-row errors
+   * @throws IOException if reading the upload fails
+   */
+  @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<ExpenseImportResponse> importCsv(@RequestParam("file") MultipartFile file)
+      throws IOException {
+    try (InputStream in = file.getInputStream()) {
+      return ResponseEntity.ok(expenseImportService.importCsv(in));
+    }
+  }
+
+  /**
+   * Updates and deletes many expenses in one request and one transaction.
+   *
+   * @param request the list of update and delete operations
+   * @return the outcome of every operation, in request order
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<ExpenseBatchResponse> applyBatch(
+      @Valid @RequestBody ExpenseBatchRequest request) {
+    return ResponseEntity.ok(expenseBatchService.apply(request));
+  }
+
   /**
    * Updates an existing expense.
    *
@@ -98,4 +386,104 @@ public class ExpenseController {
     expenseService.deleteExpense(id);
     return ResponseEntity.noContent().build();
   }
+
+  /**
+   * Answers a conditional GET with 304 when the client's copy is current. The 304 carries the
+   * Cache-Control and Vary headers of the full response, as caches expect.
+   */
+  private static boolean notModified(String etag, WebRequest webRequest) {
+    if (!webRequest.checkNotModified(etag)) {
+      return false;
+    }
+    HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+    if (response != null) {
+      response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+      response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+    return true;
+  }
+
+  /**
+   * Predicts the media type content negotiation will pick for a JSON or CBOR response, so
+   * the ETag can name it before the body is built. JSON wins ties, as its converter comes
+   * first.
+   *
+   * @return "cbor" for CBOR, or null for JSON
+   */
+  private static String representation(WebRequest webRequest) {
+    String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+    if (accept == null) {
+      return null;
+    }
+    List<MediaType> acceptable;
+    try {
+      acceptable = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      return null;
+    }
+    MimeTypeUtils.sortBySpecificity(acceptable);
+    for (MediaType type : acceptable) {
+      if (type.getQualityValue() == 0) {
+        continue;
+      }
+      if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+        return null;
+      }
+      if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+        return "cbor";
+      }
+    }
+    return null;
+  }
+
+  private SummaryBucket parseBucket(String bucket) {
+    return switch (bucket.toLowerCase()) {
+      case "day" -> SummaryBucket.DAY;
+      case "week" -> SummaryBucket.WEEK;
+      case "month" -> SummaryBucket.MONTH;
+      default -> throw new InvalidInputException("Bucket must be one of: day, week, month");
+    };
+  }
+
+  private ExpenseCategory parseCategory(String category) {
+    try {
+      return ExpenseCategory.valueOf(category.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidInputException("Category must be one of: "
+          + Arrays.toString(ExpenseCategory.values()));
+    }
+  }
+
+  private Money parseAmount(BigDecimal amount) {
+    try {
+      return Money.of(amount);
+    } catch (ArithmeticException e) {
+      throw new InvalidInputException("Amount is out of range");
+    }
+  }
+
+  private ExpenseSortField parseSortField(String sort) {
+    return switch (sort.toLowerCase()) {
+      case "date" -> ExpenseSortField.DATE;
+      case "amount" -> ExpenseSortField.AMOUNT;
+      default -> throw new InvalidInputException("Sort must be one of: date, amount");
+    };
+  }
+
+  private boolean parseAscending(String direction) {
+    return switch (direction.toLowerCase()) {
+      case "asc" -> true;
+      case "desc" -> false;
+      default -> throw new InvalidInputException("Direction must be one of: asc, desc");
+    };
+  }
+
+  private ExportFormat parseExportFormat(String format) {
+    return switch (format.toLowerCase()) {
+      case "csv" -> ExportFormat.CSV;
+      case "ndjson" -> ExportFormat.NDJSON;
+      case "json" -> ExportFormat.JSON;
+      default -> throw new InvalidInputException("Format must be one of: csv, ndjson, json");
+    };
+  }
 }
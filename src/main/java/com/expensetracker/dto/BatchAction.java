@@ -0,0 +1,6 @@
+package com.expensetracker.dto;
+
+public enum BatchAction {
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOperationResult {
+    
+    public enum Status {
+        OK,
+        NOT_FOUND,
+        INVALID
+    }
+    
+    private int index;
+    private Long id;
+    private BatchAction action;
+    private Status status;
+    private String message;
+}
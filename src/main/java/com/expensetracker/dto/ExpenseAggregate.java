@@ -0,0 +1,104 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sum, count, min and max of a group of expenses, as computed by the aggregate queries
+ * in {@link com.expensetracker.repository.ExpenseRepository}.
+ * Groups are keyed by category, by period start, or by both.
+ */
+@Data
+public class ExpenseAggregate {
+    
+    private ExpenseCategory category;
+    private LocalDate periodStart;
+    private Money total;
+    private long count;
+    private Money min;
+    private Money max;
+    
+    public ExpenseAggregate(BigDecimal total, Long count, BigDecimal min, BigDecimal max) {
+        this((ExpenseCategory) null, null, money(total), count, money(min), money(max));
+    }
+    
+    public ExpenseAggregate(ExpenseCategory category, BigDecimal total, Long count, BigDecimal min, BigDecimal max) {
+        this(category, null, money(total), count, money(min), money(max));
+    }
+    
+    public ExpenseAggregate(LocalDate periodStart, BigDecimal total, Long count, BigDecimal min, BigDecimal max) {
+        this(null, periodStart, money(total), count, money(min), money(max));
+    }
+    
+    public ExpenseAggregate(Integer year, Integer month, BigDecimal total, Long count, BigDecimal min, BigDecimal max) {
+        this(null, LocalDate.of(year, month, 1), money(total), count, money(min), money(max));
+    }
+    
+    public ExpenseAggregate(Integer year, Integer month, ExpenseCategory category, BigDecimal total, Long count,
+                            BigDecimal min, BigDecimal max) {
+        this(category, LocalDate.of(year, month, 1), money(total), count, money(min), money(max));
+    }
+    
+    public ExpenseAggregate(ExpenseCategory category, LocalDate periodStart, Money total, Long count,
+                            Money min, Money max) {
+        this.category = category;
+        this.periodStart = periodStart;
+        this.total = total != null ? total : Money.ZERO;
+        this.count = count != null ? count : 0L;
+        this.min = min;
+        this.max = max;
+    }
+    
+    /**
+     * Combines this group with another one, keeping this group's key.
+     */
+    public ExpenseAggregate merge(ExpenseAggregate other) {
+        return new ExpenseAggregate(
+                category,
+                periodStart,
+                total.plus(other.total),
+                count + other.count,
+                smaller(min, other.min),
+                larger(max, other.max));
+    }
+    
+    /**
+     * Copy of this group's figures under a different key.
+     */
+    public ExpenseAggregate rekey(ExpenseCategory category, LocalDate periodStart) {
+        return new ExpenseAggregate(category, periodStart, total, count, min, max);
+    }
+    
+    /**
+     * Mean amount of the group, rounded half-up to cents; null for an empty group.
+     */
+    public Money getAverage() {
+        if (count == 0) {
+            return null;
+        }
+        return total.dividedBy(count);
+    }
+    
+    // The aggregate queries return DECIMAL sums and extremes; they become Money once per group.
+    private static Money money(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
+    
+    private static Money smaller(Money a, Money b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : Money.min(a, b);
+    }
+    
+    private static Money larger(Money a, Money b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : Money.max(a, b);
+    }
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBatchOperation {
+    
+    @NotNull(message = "Action is required")
+    private BatchAction action;
+    
+    @NotNull(message = "Expense ID is required")
+    private Long id;
+    
+    @Valid
+    private ExpensePatch changes;
+}
@@ -0,0 +1,22 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBatchRequest {
+    
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 1000, message = "At most 1000 operations are allowed per batch")
+    private List<@Valid ExpenseBatchOperation> operations;
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Per-operation outcome of a batch, in request order.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<BatchOperationResult> results;
+}
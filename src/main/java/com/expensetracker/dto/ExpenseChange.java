@@ -0,0 +1,29 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Expense read by delta sync together with the version of the transaction that last wrote it,
+ * which positions the sync continuation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseChange {
+    private Long id;
+    private String description;
+    private Money amount;
+    private ExpenseCategory category;
+    private LocalDate expenseDate;
+    private long changeVersion;
+    
+    public ExpenseResponse toResponse() {
+        return new ExpenseResponse(id, description, amount, category, expenseDate);
+    }
+}
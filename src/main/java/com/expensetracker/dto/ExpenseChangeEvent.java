@@ -0,0 +1,28 @@
+package com.expensetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change to a user's expenses, published inside the writing transaction and pushed to the
+ * user's stream subscribers once it committed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpenseChangeEvent {
+    
+    @JsonIgnore
+    private Long userId;
+    
+    private ExpenseChangeType type;
+    private long version;
+    private Long expenseId;
+    private ExpenseResponse expense;
+}
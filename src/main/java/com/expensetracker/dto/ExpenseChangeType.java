@@ -0,0 +1,9 @@
+package com.expensetracker.dto;
+
+public enum ExpenseChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    /** Many expenses changed at once (import, batch); clients should re-fetch or delta sync. */
+    RESYNC
+}
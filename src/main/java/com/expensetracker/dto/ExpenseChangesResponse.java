@@ -0,0 +1,25 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Expenses created or updated and IDs of expenses deleted since a sync token.
+ * A full snapshot has no deletions and replaces everything the client holds. When hasMore is
+ * set, the response is one page of the sync and nextToken fetches the next one.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseChangesResponse {
+    private boolean fullSnapshot;
+    private List<ExpenseResponse> changed;
+    private List<Long> deleted;
+    private boolean hasMore;
+    private String nextToken;
+}
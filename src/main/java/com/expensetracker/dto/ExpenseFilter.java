@@ -0,0 +1,30 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Criteria of a multi-criteria expense query. Unset criteria do not restrict the result.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseFilter {
+    private Set<ExpenseCategory> categories;
+    private Money minAmount;
+    private Money maxAmount;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String text;
+    @Builder.Default
+    private ExpenseSortField sortField = ExpenseSortField.DATE;
+    private boolean ascending;
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1 in input order, excluding any CSV header.
+ * Only the first errors are listed; {@code rejected} always holds the full count.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseImportResponse {
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<ImportRowError> errors;
+}
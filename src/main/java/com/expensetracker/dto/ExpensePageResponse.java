@@ -0,0 +1,22 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A single keyset page of expenses, newest first.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the following page.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpensePageResponse {
+    private List<ExpenseResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ExpenseCategory;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Partial expense update used by batch operations; null fields are left unchanged.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpensePatch {
+    
+    @Pattern(regexp = ".*\\S.*", message = "Description must not be blank")
+    private String description;
+    
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @DecimalMax(value = "99999999999999999.99", message = "Amount is too large")
+    private BigDecimal amount;
+    
+    private ExpenseCategory category;
+    
+    @PastOrPresent(message = "Expense date cannot be in the future")
+    private LocalDate expenseDate;
+    
+    public boolean isEmpty() {
+        return description == null && amount == null && category == null && expenseDate == null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.expensetracker.dto;
 
 import com.expensetracker.model.ExpenseCategory;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -24,6 +25,7 @@ public class ExpenseRequest {
     
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @DecimalMax(value = "99999999999999999.99", message = "Amount is too large")
     private BigDecimal amount;
     
     @NotNull(message = "Category is required")
@@ -1,12 +1,12 @@
 package com.expensetracker.dto;
 
 import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -16,7 +16,7 @@ import java.time.LocalDate;
 public class ExpenseResponse {
     private Long id;
     private String description;
-    private BigDecimal amount;
+    private Money amount;
     private ExpenseCategory category;
     private LocalDate expenseDate;
 }
@@ -0,0 +1,20 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Best ranked expenses matching a search and the number of matches before the limit.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseSearchResponse {
+    private List<ExpenseResponse> items;
+    private long total;
+}
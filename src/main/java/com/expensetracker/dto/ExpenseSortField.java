@@ -0,0 +1,9 @@
+package com.expensetracker.dto;
+
+/**
+ * Column an expense query is ordered by; ties are broken by expense ID in the same direction.
+ */
+public enum ExpenseSortField {
+    DATE,
+    AMOUNT
+}
@@ -0,0 +1,26 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregated expense figures for a date range.
+ * {@code startDate} and {@code endDate} are null when the summary covers all expenses.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpenseSummaryResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private SummaryBucket bucket;
+    private SummaryEntry totals;
+    private List<SummaryEntry> byCategory;
+    private List<SummaryEntry> byPeriod;
+}
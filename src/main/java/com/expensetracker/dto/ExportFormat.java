@@ -0,0 +1,18 @@
+package com.expensetracker.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Wire formats supported by the expense export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    JSON("application/json", "json");
+    
+    private final String contentType;
+    private final String fileExtension;
+}
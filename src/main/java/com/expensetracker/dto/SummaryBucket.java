@@ -0,0 +1,10 @@
+package com.expensetracker.dto;
+
+/**
+ * Time granularity for the per-period breakdown of an expense summary.
+ */
+public enum SummaryBucket {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SummaryEntry {
+    private ExpenseCategory category;
+    private LocalDate periodStart;
+    private Money total;
+    private long count;
+    private Money min;
+    private Money max;
+    private Money average;
+    
+    public static SummaryEntry from(ExpenseAggregate aggregate) {
+        return SummaryEntry.builder()
+                .category(aggregate.getCategory())
+                .periodStart(aggregate.getPeriodStart())
+                .total(aggregate.getTotal())
+                .count(aggregate.getCount())
+                .min(aggregate.getMin())
+                .max(aggregate.getMax())
+                .average(aggregate.getAverage())
+                .build();
+    }
+}
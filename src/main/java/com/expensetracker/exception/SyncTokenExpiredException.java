@@ -0,0 +1,12 @@
+package com.expensetracker.exception;
+
+/**
+ * Exception thrown when a delta sync token is too old to be served and the client has to
+ * fetch a full snapshot instead.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+    
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
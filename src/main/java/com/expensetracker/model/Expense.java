@@ -6,7 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -15,7 +14,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "expenses")
+@Table(
+        name = "expenses",
+        indexes = {
+                @Index(name = "idx_user_date", columnList = "user_id, expense_date"),
+                @Index(name = "idx_user_category_date", columnList = "user_id, category, expense_date"),
+                @Index(name = "idx_user_amount", columnList = "user_id, amount"),
+                @Index(name = "idx_user_change_version", columnList = "user_id, change_version")
+        }
+)
 public class Expense {
     
     @Id
@@ -25,8 +32,9 @@ public class Expense {
     @Column(nullable = false)
     private String description;
     
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -39,6 +47,11 @@ public class Expense {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // Value of the owner's expenseVersion in the transaction that last wrote this row;
+    // delta sync returns the rows whose version is newer than the client's token.
+    @Column(nullable = false)
+    private long changeVersion;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -0,0 +1,68 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of one user's expenses in one calendar month and category.
+ * Maintained incrementally by {@link com.expensetracker.service.ExpenseRollupService}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "expense_monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_rollup_user_month_category",
+                columnNames = {"user_id", "month_start", "category"}
+        )
+)
+public class ExpenseMonthlyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private LocalDate monthStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExpenseCategory category;
+    
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money totalAmount;
+    
+    @Column(nullable = false)
+    private long expenseCount;
+    
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    private Money minAmount;
+    
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    private Money maxAmount;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
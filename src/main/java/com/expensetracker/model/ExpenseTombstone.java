@@ -0,0 +1,45 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted expense, kept so delta sync can report the deletion.
+ * Purged after the sync token retention period.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "expense_tombstones",
+        indexes = {
+                @Index(name = "idx_tombstone_user_change_version", columnList = "user_id, change_version"),
+                @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at")
+        }
+)
+public class ExpenseTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private Long expenseId;
+    
+    @Column(nullable = false)
+    private long changeVersion;
+    
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,145 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money as a whole number of cents, matching the DECIMAL(19,2) amount columns.
+ * Used for amounts on the read, aggregation and serialization paths so rows do not carry a
+ * {@link BigDecimal} each; {@code BigDecimal} remains at the validation boundary of requests.
+ * Stored through {@link MoneyConverter} and written to JSON as a plain decimal number.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    /** Length of the longest plain form: a sign, 17 integer digits, the point and two decimals. */
+    public static final int MAX_LENGTH = 21;
+
+    private static final int SCALE = 2;
+    private static final long CENTS_PER_UNIT = 100;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Converts a decimal amount, rounding half up to cents like the DECIMAL(19,2) columns do.
+     *
+     * @throws ArithmeticException if the amount does not fit in a long number of cents
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses the plain decimal form produced by {@link #toString()}.
+     *
+     * @throws NumberFormatException if the text is not a decimal number
+     */
+    public static Money parse(String text) {
+        return of(new BigDecimal(text));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * This amount divided by a count, rounded half up to cents.
+     */
+    public Money dividedBy(long divisor) {
+        long quotient = cents / divisor;
+        long remainder = cents % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += Long.signum(cents) * Long.signum(divisor);
+        }
+        return ofCents(quotient);
+    }
+
+    public static Money min(Money a, Money b) {
+        return a.cents <= b.cents ? a : b;
+    }
+
+    public static Money max(Money a, Money b) {
+        return a.cents >= b.cents ? a : b;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Money money && cents == money.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Writes the plain decimal form into a buffer without creating intermediate objects.
+     *
+     * @param buffer the destination, with at least {@link #MAX_LENGTH} chars from the offset
+     * @param offset the index of the first char to write
+     * @return the number of chars written
+     */
+    public int format(char[] buffer, int offset) {
+        // Digits are taken from the non-positive value so Long.MIN_VALUE cents do not overflow.
+        long negative = cents > 0 ? -cents : cents;
+        int length = (cents < 0 ? 1 : 0) + 3 + digits(negative / CENTS_PER_UNIT);
+        int position = offset + length;
+        buffer[--position] = (char) ('0' - negative % 10);
+        negative /= 10;
+        buffer[--position] = (char) ('0' - negative % 10);
+        negative /= 10;
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' - negative % 10);
+            negative /= 10;
+        } while (negative != 0);
+        if (cents < 0) {
+            buffer[--position] = '-';
+        }
+        return length;
+    }
+
+    private static int digits(long nonPositive) {
+        int count = 1;
+        while (nonPositive <= -10) {
+            nonPositive /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Plain decimal form with exactly two fraction digits, e.g. {@code 12.50} or {@code -0.05}.
+     */
+    @Override
+    public String toString() {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(buffer, 0));
+    }
+}
@@ -1,10 +1,13 @@
 package com.expensetracker.model;
 
+import com.expensetracker.config.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -17,7 +20,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 public class User implements UserDetails {
     
     @Id
@@ -39,6 +45,13 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
+    // Bumped by a native UPDATE on every expense change and used as the ETag of expense reads;
+    // never written from the entity, so a cached principal cannot overwrite it. Always read it
+    // with UserRepository.findExpenseVersion: the copy in a cached entity may be stale.
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private long expenseVersion = 0;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,32 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.ExpenseMonthlyRollup;
+import com.expensetracker.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ExpenseMonthlyRollup r WHERE r.user = :user AND r.monthStart = :monthStart AND r.category = :category")
+    Optional<ExpenseMonthlyRollup> findForUpdate(@Param("user") User user, @Param("monthStart") LocalDate monthStart, @Param("category") ExpenseCategory category);
+    
+    List<ExpenseMonthlyRollup> findByUserAndMonthStartBetweenOrderByMonthStart(User user, LocalDate from, LocalDate to);
+    
+    List<ExpenseMonthlyRollup> findByUser(User user);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ExpenseMonthlyRollup r WHERE r.user = :user")
+    int deleteByUser(@Param("user") User user);
+}
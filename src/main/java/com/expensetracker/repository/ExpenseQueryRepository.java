@@ -0,0 +1,27 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Dynamic expense queries composed from {@link ExpenseSpecifications}.
+ */
+public interface ExpenseQueryRepository {
+    
+    /**
+     * Reads one keyset page of a user's expenses as DTO projections. The owner predicate is always
+     * added first, so every plan starts from an index led by user_id.
+     *
+     * @param user the expense owner
+     * @param filters additional criteria, including the keyset position
+     * @param sort the ordering, which must end with the expense ID
+     * @param limit the maximum number of rows
+     * @return the matching expenses in the requested order
+     */
+    List<ExpenseResponse> findPage(User user, Specification<Expense> filters, Sort sort, int limit);
+}
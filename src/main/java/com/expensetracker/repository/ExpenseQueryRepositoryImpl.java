@@ -0,0 +1,47 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link ExpenseQueryRepository}.
+ * Expected access paths on MySQL, all led by user_id and verified by ExpenseQueryPlanTest:
+ * <ul>
+ *   <li>date order: idx_user_date in index order</li>
+ *   <li>date order with one category: idx_user_category_date in index order; several
+ *       categories are queried one at a time, since MySQL would filesort their union</li>
+ *   <li>amount order: idx_user_amount in index order</li>
+ *   <li>filters on another indexed column than the ordering, such as categories or an amount
+ *       range in date order: the optimizer picks between the ordered index and a filesort of
+ *       the filtered rows, depending on how selective the filter is</li>
+ *   <li>description text: residual filter on the rows of the chosen index</li>
+ * </ul>
+ */
+public class ExpenseQueryRepositoryImpl implements ExpenseQueryRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ExpenseResponse> findPage(User user, Specification<Expense> filters, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExpenseResponse> query = cb.createQuery(ExpenseResponse.class);
+        Root<Expense> root = query.from(Expense.class);
+        query.select(cb.construct(ExpenseResponse.class, root.get("id"), root.get("description"),
+                root.get("amount"), root.get("category"), root.get("expenseDate")));
+        query.where(ExpenseSpecifications.ownedBy(user).and(filters).toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,21 +1,130 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.dto.ExpenseChange;
+import com.expensetracker.dto.ExpenseResponse;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByUserOrderByExpenseDateDesc(User user);
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseQueryRepository {
+    /**
+     * Query cache region of list and range reads. Hibernate invalidates it on every write to the
+     * expenses table made on this instance; the cached queries also take the user's current
+     * expense version, so writes on other instances move their readers to new entries.
+     */
+    String RANGE_CACHE_REGION = "expense-ranges";
     
-    @Query("SELECT e FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate ORDER BY e.expenseDate DESC")
-    List<Expense> findByUserAndDateRange(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    // List and range reads project straight into ExpenseResponse: no entities are hydrated,
+    // snapshotted for dirty checking or given lazy User proxies just to be copied and dropped.
+    // Keyset pages: the pageable only carries the limit, the position comes from (cursorDate, cursorId)
+    // so every page is a bounded range scan on idx_user_date regardless of depth. First pages and
+    // date range pages repeat most and are served from the query cache until the next write. The
+    // version, from ExpenseVersionService.current, matches every row; it only keys the cached result.
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.user = :user AND e.changeVersion <= :version "
+            + "ORDER BY e.expenseDate DESC, e.id DESC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RANGE_CACHE_REGION)})
+    List<ExpenseResponse> findPageByUser(@Param("user") User user, @Param("version") long version, Pageable pageable);
     
-    List<Expense> findByUserAndExpenseDateGreaterThanEqualOrderByExpenseDateDesc(User user, LocalDate date);
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.user = :user AND e.expenseDate <= :cursorDate "
+            + "AND (e.expenseDate < :cursorDate OR e.id < :cursorId) "
+            + "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPageByUserBefore(@Param("user") User user, @Param("cursorDate") LocalDate cursorDate, @Param("cursorId") Long cursorId, Pageable pageable);
+    
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate "
+            + "AND e.expenseDate <= :cursorDate AND (e.expenseDate < :cursorDate OR e.id < :cursorId) "
+            + "AND e.changeVersion <= :version ORDER BY e.expenseDate DESC, e.id DESC")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = RANGE_CACHE_REGION)})
+    List<ExpenseResponse> findPageByUserAndDateRangeBefore(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("cursorDate") LocalDate cursorDate, @Param("cursorId") Long cursorId, @Param("version") long version, Pageable pageable);
+    
+    // Aggregates are computed in the database; SUM/MIN/MAX read the raw DECIMAL(19,2) column as BigDecimal,
+    // bypassing the Money converter, and ExpenseAggregate converts once per group.
+    @Query("SELECT new com.expensetracker.dto.ExpenseAggregate(e.category, SUM(CAST(e.amount AS BigDecimal)), COUNT(e), MIN(CAST(e.amount AS BigDecimal)), MAX(CAST(e.amount AS BigDecimal))) "
+            + "FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate "
+            + "GROUP BY e.category ORDER BY e.category")
+    List<ExpenseAggregate> summarizeByCategory(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.expensetracker.dto.ExpenseAggregate(e.expenseDate, SUM(CAST(e.amount AS BigDecimal)), COUNT(e), MIN(CAST(e.amount AS BigDecimal)), MAX(CAST(e.amount AS BigDecimal))) "
+            + "FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate "
+            + "GROUP BY e.expenseDate ORDER BY e.expenseDate")
+    List<ExpenseAggregate> summarizeByDay(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.expensetracker.dto.ExpenseAggregate(YEAR(e.expenseDate), MONTH(e.expenseDate), SUM(CAST(e.amount AS BigDecimal)), COUNT(e), MIN(CAST(e.amount AS BigDecimal)), MAX(CAST(e.amount AS BigDecimal))) "
+            + "FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate "
+            + "GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate) ORDER BY YEAR(e.expenseDate), MONTH(e.expenseDate)")
+    List<ExpenseAggregate> summarizeByMonth(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.expensetracker.dto.ExpenseAggregate(SUM(CAST(e.amount AS BigDecimal)), COUNT(e), MIN(CAST(e.amount AS BigDecimal)), MAX(CAST(e.amount AS BigDecimal))) "
+            + "FROM Expense e WHERE e.user = :user AND e.category = :category AND e.expenseDate BETWEEN :startDate AND :endDate")
+    ExpenseAggregate summarizeCategoryInRange(@Param("user") User user, @Param("category") ExpenseCategory category, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.expensetracker.dto.ExpenseAggregate(YEAR(e.expenseDate), MONTH(e.expenseDate), e.category, SUM(CAST(e.amount AS BigDecimal)), COUNT(e), MIN(CAST(e.amount AS BigDecimal)), MAX(CAST(e.amount AS BigDecimal))) "
+            + "FROM Expense e WHERE e.user = :user "
+            + "GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate), e.category")
+    List<ExpenseAggregate> summarizeByMonthAndCategory(@Param("user") User user);
+    
+    // Streaming reads for exports: rows are pulled from the JDBC cursor in fetch-size chunks and
+    // projected to DTOs, so nothing accumulates in the persistence context.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.user = :user ORDER BY e.expenseDate DESC, e.id DESC")
+    Stream<ExpenseResponse> streamByUser(@Param("user") User user);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.user = :user AND e.expenseDate BETWEEN :startDate AND :endDate "
+            + "ORDER BY e.expenseDate DESC, e.id DESC")
+    Stream<ExpenseResponse> streamByUserAndDateRange(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Batch mutations: one ownership check for all ids, then set-based statements that bypass the
+    // persistence context. Ids that do not exist and ids owned by someone else look the same.
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.id IN :ids AND e.user = :user")
+    List<ExpenseResponse> findOwnedByIds(@Param("user") User user, @Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.description = COALESCE(:description, e.description), "
+            + "e.amount = COALESCE(:amount, e.amount), e.category = COALESCE(:category, e.category), "
+            + "e.expenseDate = COALESCE(:expenseDate, e.expenseDate), e.updatedAt = :updatedAt, "
+            + "e.changeVersion = :changeVersion WHERE e.id IN :ids AND e.user = :user")
+    int updateOwnedByIds(@Param("user") User user, @Param("ids") Collection<Long> ids, @Param("description") String description, @Param("amount") Money amount, @Param("category") ExpenseCategory category, @Param("expenseDate") LocalDate expenseDate, @Param("updatedAt") LocalDateTime updatedAt, @Param("changeVersion") long changeVersion);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.id IN :ids AND e.user = :user")
+    int deleteOwnedByIds(@Param("user") User user, @Param("ids") Collection<Long> ids);
+    
+    // Delta sync: rows written after the client's version, up to the version read in the same
+    // transaction, served from idx_user_change_version.
+    @Query("SELECT new com.expensetracker.dto.ExpenseResponse(e.id, e.description, e.amount, e.category, e.expenseDate) "
+            + "FROM Expense e WHERE e.user = :user AND e.changeVersion > :sinceVersion AND e.changeVersion <= :upToVersion "
+            + "ORDER BY e.changeVersion, e.id")
+    List<ExpenseResponse> findChangedBetween(@Param("user") User user, @Param("sinceVersion") long sinceVersion, @Param("upToVersion") long upToVersion);
+    
+    // Keyset page over idx_user_change_version, whose entries end in the primary key
+    @Query("SELECT new com.expensetracker.dto.ExpenseChange(e.id, e.description, e.amount, e.category, e.expenseDate, e.changeVersion) "
+            + "FROM Expense e WHERE e.user = :user AND e.changeVersion >= :afterVersion AND e.changeVersion <= :upToVersion "
+            + "AND (e.changeVersion > :afterVersion OR e.id > :afterId) ORDER BY e.changeVersion, e.id")
+    List<ExpenseChange> findChangedAfter(@Param("user") User user, @Param("afterVersion") long afterVersion, @Param("afterId") long afterId, @Param("upToVersion") long upToVersion, Pageable pageable);
 }
@@ -0,0 +1,91 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseSortField;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Building blocks of dynamic expense queries. Each criterion maps to a column of one of the
+ * user-led composite indexes, except the description text which is only ever a residual filter.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static Specification<Expense> categoryIn(Collection<ExpenseCategory> categories) {
+        return (root, query, cb) -> root.get("category").in(categories);
+    }
+
+    public static Specification<Expense> amountAtLeast(Money minAmount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Expense> amountAtMost(Money maxAmount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+
+    public static Specification<Expense> dateFrom(LocalDate startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), startDate);
+    }
+
+    public static Specification<Expense> dateTo(LocalDate endDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("expenseDate"), endDate);
+    }
+
+    /**
+     * Case-insensitive substring match on the description, with LIKE wildcards in the text escaped.
+     */
+    public static Specification<Expense> descriptionContains(String text) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description")), pattern, '\\');
+    }
+
+    /**
+     * Keyset position strictly after (value, id) in the given ordering. Written as a bound on the
+     * sort column plus a tie-break so the database can turn it into an index range.
+     */
+    public static <T extends Comparable<? super T>> Specification<Expense> after(
+            ExpenseSortField sortField, boolean ascending, T value, long id) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(attribute(sortField));
+            Path<Long> expenseId = root.get("id");
+            return ascending
+                    ? cb.and(cb.greaterThanOrEqualTo(key, value),
+                            cb.or(cb.greaterThan(key, value), cb.greaterThan(expenseId, id)))
+                    : cb.and(cb.lessThanOrEqualTo(key, value),
+                            cb.or(cb.lessThan(key, value), cb.lessThan(expenseId, id)));
+        };
+    }
+
+    /**
+     * Ordering by the sort column with the expense ID as tie-break, matching the keyset predicate.
+     */
+    public static Sort sort(ExpenseSortField sortField, boolean ascending) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, attribute(sortField), "id");
+    }
+
+    private static String attribute(ExpenseSortField sortField) {
+        return switch (sortField) {
+            case DATE -> "expenseDate";
+            case AMOUNT -> "amount";
+        };
+    }
+}
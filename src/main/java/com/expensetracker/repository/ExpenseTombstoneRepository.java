@@ -0,0 +1,30 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseTombstone;
+import com.expensetracker.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ExpenseTombstoneRepository extends JpaRepository<ExpenseTombstone, Long> {
+    
+    @Query("SELECT t.expenseId FROM ExpenseTombstone t WHERE t.user = :user "
+            + "AND t.changeVersion > :sinceVersion AND t.changeVersion <= :upToVersion")
+    List<Long> findDeletedExpenseIds(@Param("user") User user, @Param("sinceVersion") long sinceVersion, @Param("upToVersion") long upToVersion);
+    
+    @Query("SELECT t FROM ExpenseTombstone t WHERE t.user = :user "
+            + "AND t.changeVersion >= :afterVersion AND t.changeVersion <= :upToVersion "
+            + "AND (t.changeVersion > :afterVersion OR t.id > :afterId) ORDER BY t.changeVersion, t.id")
+    List<ExpenseTombstone> findDeletedAfter(@Param("user") User user, @Param("afterVersion") long afterVersion, @Param("afterId") long afterId, @Param("upToVersion") long upToVersion, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM ExpenseTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,13 @@
 package com.expensetracker.repository;
 
 import com.expensetracker.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +16,28 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    @Query("SELECT u.expenseVersion FROM User u WHERE u.id = :id")
+    long findExpenseVersion(@Param("id") Long id);
+    
+    // Native with its own query space: a JPQL bulk UPDATE of User would evict every user from the
+    // second-level cache on each expense write, although only this never-cached column changes.
+    @Modifying
+    @Query(value = "UPDATE users SET expense_version = expense_version + 1 WHERE id = :id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users_expense_version"))
+    int incrementExpenseVersion(@Param("id") Long id);
+    
+    // The same bump ahead of expense rows written through JDBC, which Hibernate cannot see. Declaring
+    // the expenses table as well makes Hibernate invalidate cached expense queries within the writing
+    // transaction, exactly as it does for its own writes.
+    @Modifying
+    @Query(value = "UPDATE users SET expense_version = expense_version + 1 WHERE id = :id", nativeQuery = true)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users_expense_version"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "expenses")})
+    int incrementExpenseVersionForBulkWrite(@Param("id") Long id);
+    
+    // Takes the same row lock as incrementExpenseVersion without changing the version, so a reader
+    // waits for in-flight expense writes of the user and blocks new ones until it commits.
+    @Query(value = "SELECT expense_version FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    long lockExpenseVersion(@Param("id") Long id);
 }
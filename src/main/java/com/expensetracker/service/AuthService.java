@@ -9,6 +9,8 @@ import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class AuthService {
     
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
@@ -29,11 +34,6 @@ public class AuthService {
     public AuthResponse register(RegisterRequest request) {
         log.info("Attempting to register user with email: {}", request.getEmail());
         
-        if (userRepository.existsByEmail(request.getEmail())) {
-            log.error("Email already exists: {}", request.getEmail());
-            throw new DuplicateResourceException("Email already exists: " + request.getEmail());
-        }
-        
         var user = User.builder()
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
@@ -41,7 +41,16 @@ public class AuthService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .build();
         
-        userRepository.save(user);
+        // A single INSERT; the unique constraint on users.email rejects duplicates, also under races
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            log.error("Email already exists: {}", request.getEmail());
+            throw new DuplicateResourceException("Email already exists: " + request.getEmail(), e);
+        }
         log.info("Successfully registered user: {}", user.getEmail());
         
         var jwtToken = jwtService.generateToken(user);
@@ -57,18 +66,14 @@ public class AuthService {
     public AuthResponse login(LoginRequest request) {
         log.info("Attempting login for user: {}", request.getEmail());
         
-        authenticationManager.authenticate(
+        // The principal is the User loaded by userDetailsService during authentication
+        var authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getPassword()
                 )
         );
-        
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> {
-                    log.error("User not found: {}", request.getEmail());
-                    return new RuntimeException("User not found");
-                });
+        var user = (User) authentication.getPrincipal();
         
         log.info("Successfully authenticated user: {}", user.getEmail());
         var jwtToken = jwtService.generateToken(user);
@@ -80,4 +85,12 @@ public class AuthService {
                 .lastName(user.getLastName())
                 .build();
     }
+    
+    // The only unique key on users besides the generated id is email; other violations, such as
+    // NOT NULL or column lengths, are not a duplicate registration.
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && (violation.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                        || UNIQUE_VIOLATION_SQL_STATE.equals(violation.getSQLState()));
+    }
 }
@@ -0,0 +1,39 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.UnauthorizedException;
+import com.expensetracker.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the authenticated user for the expense services.
+ */
+@Slf4j
+@Component
+public class CurrentUserProvider {
+
+  /**
+   * Retrieves the currently authenticated user from the security context.
+   *
+   * @return the current user
+   * @throws UnauthorizedException if user is not authenticated
+   */
+  public User getCurrentUser() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    
+    if (authentication == null || !authentication.isAuthenticated()) {
+      log.error("No authentication found in security context");
+      throw new UnauthorizedException("User not authenticated");
+    }
+    
+    Object principal = authentication.getPrincipal();
+    if (!(principal instanceof User)) {
+      log.error("Principal is not an instance of User: {}", principal.getClass().getName());
+      throw new UnauthorizedException("Invalid authentication principal");
+    }
+    
+    return (User) principal;
+  }
+}
@@ -0,0 +1,175 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BatchAction;
+import com.expensetracker.dto.BatchOperationResult;
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.dto.ExpenseChangeEvent;
+import com.expensetracker.dto.ExpenseChangeType;
+import com.expensetracker.dto.ExpenseBatchOperation;
+import com.expensetracker.dto.ExpenseBatchRequest;
+import com.expensetracker.dto.ExpenseBatchResponse;
+import com.expensetracker.dto.ExpensePatch;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service applying many expense updates and deletes in one round trip.
+ * Ownership of all referenced expenses is checked with a single query, updates sharing the same
+ * changes are applied as one bulk statement and all deletes as another, and the monthly rollups
+ * are adjusted once per (month, category) bucket. Everything runs in one transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseBatchService {
+
+  private final ExpenseRepository expenseRepository;
+  private final ExpenseRollupService rollupService;
+  private final CurrentUserProvider currentUserProvider;
+  private final ExpenseVersionService versionService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ExpenseSyncService syncService;
+
+  /**
+   * Applies a batch of operations on the current user's expenses.
+   * Operations referencing an unknown or foreign expense, repeating an expense already used
+   * earlier in the batch, or updating without any change are reported and skipped; the others
+   * are applied.
+   *
+   * @param request the batch of operations
+   * @return one result per operation, in request order
+   */
+  @Transactional
+  public ExpenseBatchResponse apply(ExpenseBatchRequest request) {
+    User user = currentUserProvider.getCurrentUser();
+    List<ExpenseBatchOperation> operations = request.getOperations();
+    log.info("Applying batch of {} operations for user: {}", operations.size(), user.getEmail());
+
+    Set<Long> ids = operations.stream()
+        .map(ExpenseBatchOperation::getId)
+        .collect(Collectors.toSet());
+    Map<Long, ExpenseResponse> owned = expenseRepository.findOwnedByIds(user, ids).stream()
+        .collect(Collectors.toMap(ExpenseResponse::getId, Function.identity()));
+
+    BatchOperationResult[] results = new BatchOperationResult[operations.size()];
+    Set<Long> seen = new HashSet<>();
+    List<Long> deletes = new ArrayList<>();
+    Map<ExpensePatch, List<Long>> updates = new LinkedHashMap<>();
+    Map<String, ExpenseAggregate> rollupRemovals = new HashMap<>();
+    Map<String, ExpenseAggregate> rollupAdditions = new HashMap<>();
+
+    for (int i = 0; i < operations.size(); i++) {
+      ExpenseBatchOperation operation = operations.get(i);
+      ExpenseResponse current = owned.get(operation.getId());
+      if (current == null) {
+        results[i] = result(i, operation, BatchOperationResult.Status.NOT_FOUND,
+            "Expense not found with id: " + operation.getId());
+        continue;
+      }
+      ExpensePatch patch = operation.getChanges();
+      if (operation.getAction() == BatchAction.UPDATE && (patch == null || patch.isEmpty())) {
+        results[i] = result(i, operation, BatchOperationResult.Status.INVALID,
+            "Update requires at least one changed field");
+        continue;
+      }
+      if (!seen.add(operation.getId())) {
+        results[i] = result(i, operation, BatchOperationResult.Status.INVALID,
+            "Expense appears more than once in the batch");
+        continue;
+      }
+
+      if (operation.getAction() == BatchAction.DELETE) {
+        deletes.add(current.getId());
+        collect(rollupRemovals, current);
+      } else {
+        updates.computeIfAbsent(patch, key -> new ArrayList<>()).add(current.getId());
+        collect(rollupRemovals, current);
+        collect(rollupAdditions, apply(current, patch));
+      }
+      results[i] = result(i, operation, BatchOperationResult.Status.OK, null);
+    }
+
+    int succeeded = (int) Arrays.stream(results)
+        .filter(result -> result.getStatus() == BatchOperationResult.Status.OK)
+        .count();
+    if (succeeded > 0) {
+      long changeVersion = versionService.bump(user);
+      if (!deletes.isEmpty()) {
+        expenseRepository.deleteOwnedByIds(user, deletes);
+        syncService.recordDeletions(user, deletes, changeVersion);
+      }
+      LocalDateTime now = LocalDateTime.now();
+      updates.forEach((patch, patchIds) -> expenseRepository.updateOwnedByIds(user, patchIds,
+          patch.getDescription(),
+          patch.getAmount() != null ? Money.of(patch.getAmount()) : null, patch.getCategory(), patch.getExpenseDate(),
+          now, changeVersion));
+      rollupService.removeAll(user, rollupRemovals.values());
+      rollupService.addAll(user, rollupAdditions.values());
+      eventPublisher.publishEvent(ExpenseChangeEvent.builder()
+          .userId(user.getId())
+          .type(ExpenseChangeType.RESYNC)
+          .version(changeVersion)
+          .build());
+    }
+    log.info("Batch for user {} applied {} of {} operations ({} bulk updates, {} deletes)",
+        user.getEmail(), succeeded, operations.size(), updates.size(), deletes.size());
+    return ExpenseBatchResponse.builder()
+        .succeeded(succeeded)
+        .failed(operations.size() - succeeded)
+        .results(List.of(results))
+        .build();
+  }
+
+  private static ExpenseResponse apply(ExpenseResponse current, ExpensePatch patch) {
+    return ExpenseResponse.builder()
+        .id(current.getId())
+        .description(patch.getDescription() != null
+            ? patch.getDescription() : current.getDescription())
+        .amount(patch.getAmount() != null ? Money.of(patch.getAmount()) : current.getAmount())
+        .category(patch.getCategory() != null ? patch.getCategory() : current.getCategory())
+        .expenseDate(patch.getExpenseDate() != null
+            ? patch.getExpenseDate() : current.getExpenseDate())
+        .build();
+  }
+
+  private static void collect(Map<String, ExpenseAggregate> buckets, ExpenseResponse expense) {
+    LocalDate monthStart = expense.getExpenseDate().withDayOfMonth(1);
+    ExpenseCategory category = expense.getCategory();
+    Money amount = expense.getAmount();
+    buckets.merge(monthStart + "/" + category,
+        new ExpenseAggregate(category, monthStart, amount, 1L, amount, amount),
+        ExpenseAggregate::merge);
+  }
+
+  private static BatchOperationResult result(int index, ExpenseBatchOperation operation,
+      BatchOperationResult.Status status, String message) {
+    return BatchOperationResult.builder()
+        .index(index)
+        .id(operation.getId())
+        .action(operation.getAction())
+        .status(status)
+        .message(message)
+        .build();
+  }
+}
@@ -0,0 +1,170 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseChangeEvent;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.SummaryBucket;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseTombstoneRepository;
+import com.expensetracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+/**
+ * Optional cache of per-user {@link ExpenseColumns} answering expense summaries from memory.
+ * Columns are loaded on a user's first summary and kept in step with the user's expense version
+ * like the search index: single-expense changes committed on this instance are patched in from
+ * their change events, and anything else is caught up through the delta sync queries, or by a
+ * reload when the delta is large. The cache is bounded by the bytes held in column arrays and
+ * evicts least recently used users first.
+ */
+@Slf4j
+@Service
+public class ExpenseColumnCache {
+
+  private final ExpenseRepository expenseRepository;
+  private final ExpenseTombstoneRepository tombstoneRepository;
+  private final UserRepository userRepository;
+  private final boolean enabled;
+  private final Cache<Long, ExpenseColumns> columns;
+
+  public ExpenseColumnCache(ExpenseRepository expenseRepository,
+      ExpenseTombstoneRepository tombstoneRepository, UserRepository userRepository,
+      @Value("${expense.column-cache.enabled:false}") boolean enabled,
+      @Value("${expense.column-cache.max-memory:64MB}") DataSize maxMemory,
+      @Value("${expense.column-cache.expire-after-access:1h}") Duration expireAfterAccess,
+      MeterRegistry meterRegistry) {
+    this.expenseRepository = expenseRepository;
+    this.tombstoneRepository = tombstoneRepository;
+    this.userRepository = userRepository;
+    this.enabled = enabled;
+    this.columns = Caffeine.newBuilder()
+        .maximumWeight(maxMemory.toBytes())
+        .weigher((Long userId, ExpenseColumns userColumns) ->
+            (int) Math.min(Integer.MAX_VALUE, userColumns.retainedBytes()))
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+    if (enabled) {
+      CaffeineCacheMetrics.monitor(meterRegistry, columns, "expense.column-cache");
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Aggregates a user's expenses in a date range per category and per period from the cached
+   * columns, loading or catching them up first.
+   *
+   * @param user the expense owner
+   * @param startDate the inclusive start date
+   * @param endDate the inclusive end date
+   * @param bucket the period granularity
+   * @return the per-category and per-period aggregates
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  ExpenseColumns.Summary summarize(User user, LocalDate startDate, LocalDate endDate,
+      SummaryBucket bucket) {
+    ExpenseColumns userColumns = synchronizedColumns(user);
+    Lock lock = userColumns.getLock().readLock();
+    lock.lock();
+    try {
+      return userColumns.summarize(startDate, endDate, bucket);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Patches a committed single-expense change into the owner's columns when it directly follows
+   * the cached version. Other changes are left to the catch-up on the next read.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onChange(ExpenseChangeEvent event) {
+    ExpenseColumns userColumns = columns.policy().getIfPresentQuietly(event.getUserId());
+    if (userColumns == null) {
+      return;
+    }
+    Lock lock = userColumns.getLock().writeLock();
+    lock.lock();
+    try {
+      if (userColumns.getVersion() + 1 != event.getVersion()) {
+        return;
+      }
+      switch (event.getType()) {
+        case CREATED, UPDATED -> userColumns.put(event.getExpense());
+        case DELETED -> userColumns.remove(event.getExpenseId());
+        case RESYNC -> {
+          return;
+        }
+      }
+      userColumns.setVersion(event.getVersion());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ExpenseColumns synchronizedColumns(User user) {
+    long currentVersion = userRepository.findExpenseVersion(user.getId());
+    ExpenseColumns userColumns = columns.get(user.getId(), userId -> load(user, currentVersion));
+    if (userColumns.getVersion() >= currentVersion) {
+      return userColumns;
+    }
+
+    Lock lock = userColumns.getLock().writeLock();
+    lock.lock();
+    try {
+      long cachedVersion = userColumns.getVersion();
+      if (cachedVersion < currentVersion) {
+        List<ExpenseResponse> changed =
+            expenseRepository.findChangedBetween(user, cachedVersion, currentVersion);
+        List<Long> deleted =
+            tombstoneRepository.findDeletedExpenseIds(user, cachedVersion, currentVersion);
+        // Each patch shifts the arrays, so a large delta such as an import is cheaper to reload.
+        if (changed.size() + deleted.size() > Math.max(64, userColumns.size() / 8)) {
+          userColumns = load(user, currentVersion);
+        } else {
+          deleted.forEach(userColumns::remove);
+          changed.forEach(userColumns::put);
+          userColumns.setVersion(currentVersion);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    // Re-inserting lets the cache account for the new array sizes.
+    columns.put(user.getId(), userColumns);
+    return userColumns;
+  }
+
+  private ExpenseColumns load(User user, long version) {
+    ExpenseColumns userColumns = new ExpenseColumns(version, 0);
+    try (Stream<ExpenseResponse> expenses = expenseRepository.streamByUser(user)) {
+      expenses.forEach(userColumns::append);
+    }
+    userColumns.finishLoad();
+    log.info("Loaded {} expenses of user {} into columns at version {}", userColumns.size(),
+        user.getEmail(), version);
+    return userColumns;
+  }
+}
@@ -0,0 +1,282 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.SummaryBucket;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory copy of one user's expenses for analytics reads.
+ * Rows are held in parallel primitive arrays ordered by expense date: the epoch day, the amount
+ * in cents, the category ordinal and the expense ID. A date range is located with two binary
+ * searches and aggregated in a single loop over the arrays; objects are only created per
+ * output group, never per row. Callers guard access with {@link #getLock()}.
+ */
+final class ExpenseColumns {
+
+  /** Bytes held per row across the four column arrays. */
+  static final int BYTES_PER_ROW = Integer.BYTES + Long.BYTES + Byte.BYTES + Long.BYTES;
+
+  private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+  private static final int INITIAL_CAPACITY = 64;
+
+  @Getter
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** The user expense version the columns reflect. */
+  @Getter
+  private long version;
+
+  private int[] days;
+  private long[] cents;
+  private byte[] categories;
+  private long[] ids;
+  private int size;
+
+  ExpenseColumns(long version, int capacity) {
+    this.version = version;
+    int initial = Math.max(INITIAL_CAPACITY, capacity);
+    this.days = new int[initial];
+    this.cents = new long[initial];
+    this.categories = new byte[initial];
+    this.ids = new long[initial];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** Bytes retained by the column arrays, including spare capacity. */
+  long retainedBytes() {
+    return (long) days.length * BYTES_PER_ROW;
+  }
+
+  void setVersion(long version) {
+    this.version = version;
+  }
+
+  /**
+   * Appends a row during the initial load, which must supply rows in descending (date, id)
+   * order; {@link #finishLoad()} then restores ascending order.
+   *
+   * @param expense the expense
+   */
+  void append(ExpenseResponse expense) {
+    ensureCapacity(size + 1);
+    days[size] = (int) expense.getExpenseDate().toEpochDay();
+    cents[size] = expense.getAmount().getCents();
+    categories[size] = (byte) expense.getCategory().ordinal();
+    ids[size] = expense.getId();
+    size++;
+  }
+
+  void finishLoad() {
+    for (int i = 0, j = size - 1; i < j; i++, j--) {
+      swap(i, j);
+    }
+  }
+
+  /**
+   * Adds an expense or replaces the cached copy of it.
+   *
+   * @param expense the expense as currently stored
+   */
+  void put(ExpenseResponse expense) {
+    remove(expense.getId());
+    int day = (int) expense.getExpenseDate().toEpochDay();
+    long amount = expense.getAmount().getCents();
+    int position = upperBound(day);
+    ensureCapacity(size + 1);
+    int tail = size - position;
+    System.arraycopy(days, position, days, position + 1, tail);
+    System.arraycopy(cents, position, cents, position + 1, tail);
+    System.arraycopy(categories, position, categories, position + 1, tail);
+    System.arraycopy(ids, position, ids, position + 1, tail);
+    days[position] = day;
+    cents[position] = amount;
+    categories[position] = (byte) expense.getCategory().ordinal();
+    ids[position] = expense.getId();
+    size++;
+  }
+
+  /**
+   * Removes an expense; unknown IDs are ignored.
+   *
+   * @param expenseId the expense ID
+   */
+  void remove(long expenseId) {
+    for (int i = 0; i < size; i++) {
+      if (ids[i] == expenseId) {
+        int tail = size - i - 1;
+        System.arraycopy(days, i + 1, days, i, tail);
+        System.arraycopy(cents, i + 1, cents, i, tail);
+        System.arraycopy(categories, i + 1, categories, i, tail);
+        System.arraycopy(ids, i + 1, ids, i, tail);
+        size--;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Aggregates the expenses of a date range per category and per period.
+   *
+   * @param startDate the inclusive start date
+   * @param endDate the inclusive end date
+   * @param bucket the period granularity
+   * @return the per-category and per-period aggregates of non-empty groups, in ascending order
+   */
+  Summary summarize(LocalDate startDate, LocalDate endDate, SummaryBucket bucket) {
+    int from = lowerBound((int) startDate.toEpochDay());
+    int to = upperBound((int) endDate.toEpochDay());
+
+    long[] categoryTotals = new long[CATEGORIES.length];
+    long[] categoryCounts = new long[CATEGORIES.length];
+    long[] categoryMins = new long[CATEGORIES.length];
+    long[] categoryMaxes = new long[CATEGORIES.length];
+    Arrays.fill(categoryMins, Long.MAX_VALUE);
+    Arrays.fill(categoryMaxes, Long.MIN_VALUE);
+
+    List<ExpenseAggregate> periods = new ArrayList<>();
+    LocalDate periodStart = null;
+    long periodEnd = Long.MIN_VALUE;
+    long periodTotal = 0;
+    long periodCount = 0;
+    long periodMin = Long.MAX_VALUE;
+    long periodMax = Long.MIN_VALUE;
+
+    for (int i = from; i < to; i++) {
+      int day = days[i];
+      long amount = cents[i];
+      int category = categories[i];
+      categoryTotals[category] += amount;
+      categoryCounts[category]++;
+      categoryMins[category] = Math.min(categoryMins[category], amount);
+      categoryMaxes[category] = Math.max(categoryMaxes[category], amount);
+
+      if (day >= periodEnd) {
+        if (periodCount > 0) {
+          periods.add(aggregate(null, periodStart, periodTotal, periodCount, periodMin, periodMax));
+        }
+        periodStart = periodStart(LocalDate.ofEpochDay(day), bucket);
+        periodEnd = nextPeriodStart(periodStart, bucket).toEpochDay();
+        periodTotal = 0;
+        periodCount = 0;
+        periodMin = Long.MAX_VALUE;
+        periodMax = Long.MIN_VALUE;
+      }
+      periodTotal += amount;
+      periodCount++;
+      periodMin = Math.min(periodMin, amount);
+      periodMax = Math.max(periodMax, amount);
+    }
+    if (periodCount > 0) {
+      periods.add(aggregate(null, periodStart, periodTotal, periodCount, periodMin, periodMax));
+    }
+
+    List<ExpenseAggregate> byCategory = new ArrayList<>();
+    for (int c = 0; c < CATEGORIES.length; c++) {
+      if (categoryCounts[c] > 0) {
+        byCategory.add(aggregate(CATEGORIES[c], null, categoryTotals[c], categoryCounts[c],
+            categoryMins[c], categoryMaxes[c]));
+      }
+    }
+    return new Summary(byCategory, periods);
+  }
+
+  private static ExpenseAggregate aggregate(ExpenseCategory category, LocalDate periodStart,
+      long total, long count, long min, long max) {
+    return new ExpenseAggregate(category, periodStart, Money.ofCents(total), count,
+        Money.ofCents(min), Money.ofCents(max));
+  }
+
+  private static LocalDate periodStart(LocalDate date, SummaryBucket bucket) {
+    return switch (bucket) {
+      case DAY -> date;
+      case WEEK -> date.minusDays(date.getDayOfWeek().getValue() - 1L);
+      case MONTH -> date.withDayOfMonth(1);
+    };
+  }
+
+  private static LocalDate nextPeriodStart(LocalDate periodStart, SummaryBucket bucket) {
+    return switch (bucket) {
+      case DAY -> periodStart.plusDays(1);
+      case WEEK -> periodStart.plusWeeks(1);
+      case MONTH -> periodStart.plusMonths(1);
+    };
+  }
+
+  /** Index of the first row on or after the given day. */
+  private int lowerBound(int day) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (days[mid] < day) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Index of the first row after the given day. */
+  private int upperBound(int day) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (days[mid] <= day) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private void ensureCapacity(int required) {
+    if (required <= days.length) {
+      return;
+    }
+    int capacity = Math.max(required, days.length + (days.length >> 1));
+    days = Arrays.copyOf(days, capacity);
+    cents = Arrays.copyOf(cents, capacity);
+    categories = Arrays.copyOf(categories, capacity);
+    ids = Arrays.copyOf(ids, capacity);
+  }
+
+  private void swap(int i, int j) {
+    int day = days[i];
+    days[i] = days[j];
+    days[j] = day;
+    long amount = cents[i];
+    cents[i] = cents[j];
+    cents[j] = amount;
+    byte category = categories[i];
+    categories[i] = categories[j];
+    categories[j] = category;
+    long id = ids[i];
+    ids[i] = ids[j];
+    ids[j] = id;
+  }
+
+  /** Per-category and per-period aggregates of a date range. */
+  @Getter
+  @RequiredArgsConstructor
+  static final class Summary {
+    private final List<ExpenseAggregate> byCategory;
+    private final List<ExpenseAggregate> byPeriod;
+  }
+}
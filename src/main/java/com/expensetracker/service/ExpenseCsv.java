@@ -0,0 +1,113 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.InvalidInputException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV layout shared by the expense export and import: a header line followed by one
+ * RFC 4180 record per expense.
+ */
+final class ExpenseCsv {
+
+  static final String HEADER = "id,description,amount,category,expenseDate";
+
+  private ExpenseCsv() {
+  }
+
+  /**
+   * Writes a single field, quoting it when it contains a separator, quote or line break.
+   *
+   * @param out the target writer
+   * @param value the raw field value
+   * @throws IOException if writing fails
+   */
+  static void writeField(Writer out, String value) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      out.write(value);
+      return;
+    }
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        out.write('"');
+      }
+      out.write(c);
+    }
+    out.write('"');
+  }
+
+  /**
+   * Reads the next record, honouring quoted fields with embedded separators, quotes and line
+   * breaks. Blank lines are skipped.
+   *
+   * @param in the source reader; should be buffered
+   * @return the fields of the record, or null at end of input
+   * @throws IOException if reading fails
+   * @throws InvalidInputException if a quoted field is not terminated
+   */
+  static List<String> readRecord(Reader in) throws IOException {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean any = false;
+    int c;
+    while ((c = in.read()) != -1) {
+      any = true;
+      if (quoted) {
+        if (c != '"') {
+          field.append((char) c);
+          continue;
+        }
+        in.mark(1);
+        int next = in.read();
+        if (next == '"') {
+          field.append('"');
+        } else {
+          quoted = false;
+          if (next != -1) {
+            in.reset();
+          }
+        }
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r') {
+          in.mark(1);
+          if (in.read() != '\n') {
+            in.reset();
+          }
+        }
+        if (fields.isEmpty() && field.length() == 0) {
+          any = false;
+          continue;
+        }
+        fields.add(field.toString());
+        return fields;
+      } else {
+        field.append((char) c);
+      }
+    }
+    if (quoted) {
+      throw new InvalidInputException("Malformed CSV: unterminated quoted field at end of input");
+    }
+    if (!any) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
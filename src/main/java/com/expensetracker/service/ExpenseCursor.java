@@ -0,0 +1,80 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.InvalidInputException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (expenseDate DESC, id DESC) ordering of a user's expenses.
+ * Serialized as an opaque URL-safe token so clients never depend on its layout.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class ExpenseCursor {
+
+  private static final char SEPARATOR = ':';
+
+  private final LocalDate expenseDate;
+  private final long id;
+
+  /**
+   * Position just past the newest possible expense on the given date, so the first page of a
+   * range starts with {@code endDate} inclusive.
+   *
+   * @param endDate the inclusive upper bound of the range
+   * @return the starting cursor
+   */
+  static ExpenseCursor startingAt(LocalDate endDate) {
+    return new ExpenseCursor(endDate, Long.MAX_VALUE);
+  }
+
+  /**
+   * Position right after the given row.
+   *
+   * @param expenseDate the date of the last returned row
+   * @param id the ID of the last returned row
+   * @return the cursor for the next page
+   */
+  static ExpenseCursor after(LocalDate expenseDate, long id) {
+    return new ExpenseCursor(expenseDate, id);
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @param token the opaque cursor token
+   * @return the decoded cursor
+   * @throws InvalidInputException if the token is malformed
+   */
+  static ExpenseCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new InvalidInputException("Invalid cursor");
+      }
+      return new ExpenseCursor(
+          LocalDate.parse(raw.substring(0, separator)),
+          Long.parseLong(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidInputException("Invalid cursor", e);
+    }
+  }
+
+  /**
+   * Encodes this cursor as an opaque URL-safe token.
+   *
+   * @return the token
+   */
+  String encode() {
+    String raw = expenseDate.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
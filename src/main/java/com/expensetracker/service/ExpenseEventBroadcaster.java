@@ -0,0 +1,244 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseChangeEvent;
+import com.expensetracker.exception.TooManyRequestsException;
+import com.expensetracker.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed expense changes to the Server-Sent Events subscribers of their owner.
+ * Idle connections hold no thread: each subscriber has a bounded queue that is drained on a
+ * dedicated, fixed-size writer pool only while it has events, so blocked writes can never take
+ * threads from other asynchronous work. A subscriber whose queue overflows, or whose write has
+ * been stuck for longer than the send timeout, is disconnected, so a slow client never delays
+ * the others for long; it reconnects and catches up through the delta sync endpoint.
+ *
+ * <p>Only changes committed on this instance are delivered. Subscribers connected to another
+ * instance receive nothing for them until they reconnect and call the changes endpoint.
+ */
+@Slf4j
+@Component
+public class ExpenseEventBroadcaster {
+
+  private final ThreadPoolExecutor executor;
+  private final CurrentUserProvider currentUserProvider;
+  private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final AtomicInteger subscriberCount = new AtomicInteger();
+
+  @Value("${expense.stream.timeout:30m}")
+  private Duration timeout;
+
+  @Value("${expense.stream.buffer-size:64}")
+  private int bufferSize;
+
+  @Value("${expense.stream.max-subscribers-per-user:5}")
+  private int maxSubscribersPerUser;
+
+  @Value("${expense.stream.send-timeout:10s}")
+  private Duration sendTimeout;
+
+  public ExpenseEventBroadcaster(
+      @Value("${expense.stream.writer-threads:8}") int writerThreads,
+      CurrentUserProvider currentUserProvider, MeterRegistry meterRegistry) {
+    // At most one drain per subscriber is pending, so the queue is bounded by the subscriber limit
+    this.executor = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), new CustomizableThreadFactory("expense-stream-"));
+    this.currentUserProvider = currentUserProvider;
+    Gauge.builder("expense.stream.subscribers", subscriberCount, AtomicInteger::get)
+        .description("Open expense change streams")
+        .register(meterRegistry);
+    new ExecutorServiceMetrics(executor, "expense.stream.writer", Tags.empty())
+        .bindTo(meterRegistry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Opens a change stream for the current user.
+   *
+   * @return the emitter bound to the HTTP response
+   * @throws TooManyRequestsException if the user already has the maximum number of streams
+   */
+  public SseEmitter subscribe() {
+    User user = currentUserProvider.getCurrentUser();
+    SseEmitter emitter = new SseEmitter(timeout.toMillis());
+    Subscriber subscriber = new Subscriber(user.getId(), emitter, bufferSize);
+    subscribers.compute(user.getId(), (id, userSubscribers) -> {
+      Set<Subscriber> updated =
+          userSubscribers != null ? userSubscribers : ConcurrentHashMap.newKeySet();
+      if (updated.size() >= maxSubscribersPerUser) {
+        throw new TooManyRequestsException("Too many open expense streams");
+      }
+      updated.add(subscriber);
+      return updated;
+    });
+    subscriberCount.incrementAndGet();
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(error -> remove(subscriber));
+    enqueue(subscriber, SseEmitter.event().comment("connected"));
+    log.debug("User {} opened an expense stream", user.getEmail());
+    return emitter;
+  }
+
+  /**
+   * Fans a committed change out to the owner's subscribers.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onChange(ExpenseChangeEvent event) {
+    Set<Subscriber> userSubscribers = subscribers.get(event.getUserId());
+    if (userSubscribers == null) {
+      return;
+    }
+    for (Subscriber subscriber : userSubscribers) {
+      enqueue(subscriber, SseEmitter.event()
+          .id(Long.toString(event.getVersion()))
+          .name(event.getType().name().toLowerCase())
+          .data(event));
+    }
+  }
+
+  /**
+   * Keeps idle streams open through proxies, detects disconnected clients and disconnects
+   * subscribers whose write has stalled.
+   */
+  @Scheduled(fixedRateString = "${expense.stream.heartbeat-interval:PT15S}")
+  public void heartbeat() {
+    long now = System.nanoTime();
+    subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+      if (subscriber.isStalled(now, sendTimeout)) {
+        log.warn("Dropping stalled expense stream subscriber of user {}", subscriber.userId);
+        close(subscriber);
+      } else {
+        enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+      }
+    }));
+  }
+
+  private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+    if (!subscriber.queue.offer(event)) {
+      log.warn("Dropping slow expense stream subscriber of user {}", subscriber.userId);
+      close(subscriber);
+      return;
+    }
+    if (subscriber.draining.compareAndSet(false, true)) {
+      executor.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    try {
+      SseEmitter.SseEventBuilder event;
+      while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+        subscriber.sendStartedAt = System.nanoTime();
+        subscriber.writer = Thread.currentThread();
+        try {
+          subscriber.emitter.send(event);
+        } finally {
+          // Under the subscriber's lock, so close() can never interrupt this thread's next send
+          synchronized (subscriber) {
+            subscriber.writer = null;
+            Thread.interrupted();
+          }
+        }
+      }
+      if (subscriber.closed) {
+        // Completed here rather than by close(), which must not wait for a stuck send
+        subscriber.emitter.complete();
+        return;
+      }
+    } catch (IOException | IllegalStateException e) {
+      log.debug("Expense stream of user {} closed: {}", subscriber.userId, e.getMessage());
+      remove(subscriber);
+      return;
+    } finally {
+      subscriber.draining.set(false);
+    }
+    // An event enqueued between the last poll and the reset above must not be left behind.
+    if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+      executor.execute(() -> drain(subscriber));
+    }
+  }
+
+  /**
+   * Disconnects a subscriber. The emitter is completed by its drain, which a stuck send is
+   * interrupted out of; completing it here would block on the send in progress.
+   */
+  private void close(Subscriber subscriber) {
+    subscriber.closed = true;
+    remove(subscriber);
+    synchronized (subscriber) {
+      if (subscriber.writer != null) {
+        subscriber.writer.interrupt();
+        return;
+      }
+    }
+    if (subscriber.draining.compareAndSet(false, true)) {
+      executor.execute(() -> drain(subscriber));
+    }
+  }
+
+  private void remove(Subscriber subscriber) {
+    AtomicBoolean removed = new AtomicBoolean();
+    subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+      removed.set(userSubscribers.remove(subscriber));
+      return userSubscribers.isEmpty() ? null : userSubscribers;
+    });
+    if (removed.get()) {
+      subscriberCount.decrementAndGet();
+      subscriber.queue.clear();
+    }
+  }
+
+  /** One open stream with its pending events. */
+  private static final class Subscriber {
+
+    private final long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile Thread writer;
+    private volatile long sendStartedAt;
+
+    private Subscriber(long userId, SseEmitter emitter, int bufferSize) {
+      this.userId = userId;
+      this.emitter = emitter;
+      this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    private boolean isStalled(long now, Duration sendTimeout) {
+      return writer != null && now - sendStartedAt > sendTimeout.toNanos();
+    }
+  }
+}
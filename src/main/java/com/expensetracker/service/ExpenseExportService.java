@@ -0,0 +1,176 @@
+package com.expensetracker.service;
+
+import com.expensetracker.config.ExpenseJsonWriter;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ExportFormat;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Service writing a user's expenses straight to an output stream.
+ * Rows are streamed from the database as DTO projections and written one by one, so memory
+ * use stays constant regardless of how many expenses are exported. JSON rows are written with
+ * {@link ExpenseJsonWriter} and CSV amounts and dates are formatted into a reused buffer, so
+ * rows allocate nothing beyond the projection itself.
+ */
+@Slf4j
+@Service
+public class ExpenseExportService {
+
+  private final ExpenseRepository expenseRepository;
+  private final CurrentUserProvider currentUserProvider;
+  private final JsonFactory jsonFactory;
+
+  public ExpenseExportService(ExpenseRepository expenseRepository,
+      CurrentUserProvider currentUserProvider, ObjectMapper objectMapper) {
+    this.expenseRepository = expenseRepository;
+    this.currentUserProvider = currentUserProvider;
+    this.jsonFactory = objectMapper.getFactory();
+  }
+
+  /**
+   * Checks the optional date range of an export. Called before any download header is set, so
+   * an invalid range is still answered with a JSON error.
+   *
+   * @param startDate optional start date, must be given together with endDate
+   * @param endDate optional end date, must be given together with startDate
+   * @throws InvalidInputException if dates are invalid
+   */
+  public void validateRange(LocalDate startDate, LocalDate endDate) {
+    if ((startDate == null) != (endDate == null)) {
+      log.error("Only one of start date {} and end date {} is set", startDate, endDate);
+      throw new InvalidInputException("Start date and end date must be provided together");
+    }
+    if (startDate != null && startDate.isAfter(endDate)) {
+      log.error("Start date {} is after end date {}", startDate, endDate);
+      throw new InvalidInputException("Start date must be before or equal to end date");
+    }
+  }
+
+  /**
+   * Exports the current user's expenses, newest first.
+   *
+   * @param format the output format
+   * @param startDate optional start date, must be given together with endDate
+   * @param endDate optional end date, must be given together with startDate
+   * @param out the stream to write to; flushed but not closed
+   * @throws IOException if writing to the stream fails
+   * @throws InvalidInputException if dates are invalid
+   */
+  @Transactional(readOnly = true)
+  public void export(ExportFormat format, LocalDate startDate, LocalDate endDate,
+      OutputStream out) throws IOException {
+    validateRange(startDate, endDate);
+
+    User user = currentUserProvider.getCurrentUser();
+    log.info("Exporting expenses of user {} as {}", user.getEmail(), format);
+
+    long rows;
+    try (Stream<ExpenseResponse> expenses = startDate == null
+        ? expenseRepository.streamByUser(user)
+        : expenseRepository.streamByUserAndDateRange(user, startDate, endDate)) {
+      rows = switch (format) {
+        case CSV -> writeCsv(expenses, out);
+        case NDJSON -> writeNdjson(expenses, out);
+        case JSON -> writeJson(expenses, out);
+      };
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    log.info("Exported {} expenses of user {}", rows, user.getEmail());
+  }
+
+  private long writeCsv(Stream<ExpenseResponse> expenses, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    char[] buffer = new char[Money.MAX_LENGTH];
+    writer.write(ExpenseCsv.HEADER);
+    writer.write('\n');
+    long rows = write(expenses, expense -> {
+      writer.write(Long.toString(expense.getId()));
+      writer.write(',');
+      ExpenseCsv.writeField(writer, expense.getDescription());
+      writer.write(',');
+      writer.write(buffer, 0, expense.getAmount().format(buffer, 0));
+      writer.write(',');
+      writer.write(expense.getCategory().name());
+      writer.write(',');
+      writer.write(buffer, 0, ExpenseJsonWriter.formatDate(expense.getExpenseDate(), buffer, 0));
+      writer.write('\n');
+    });
+    writer.flush();
+    return rows;
+  }
+
+  private long writeNdjson(Stream<ExpenseResponse> expenses, OutputStream out)
+      throws IOException {
+    try (JsonGenerator generator = createGenerator(out)) {
+      // Lines are delimited by the newline alone, not by the default space between root values
+      generator.setRootValueSeparator(null);
+      ExpenseJsonWriter writer = new ExpenseJsonWriter(generator);
+      return write(expenses, expense -> {
+        writer.write(expense);
+        generator.writeRaw('\n');
+      });
+    }
+  }
+
+  private long writeJson(Stream<ExpenseResponse> expenses, OutputStream out) throws IOException {
+    try (JsonGenerator generator = createGenerator(out)) {
+      ExpenseJsonWriter writer = new ExpenseJsonWriter(generator);
+      generator.writeStartArray();
+      long rows = write(expenses, writer::write);
+      generator.writeEndArray();
+      return rows;
+    }
+  }
+
+  /**
+   * Generator writing UTF-8 straight to the stream, which it flushes but leaves open. Closing it
+   * does not complete open arrays or objects, so an export failing midway leaves a visibly
+   * truncated body rather than a valid but incomplete document.
+   */
+  private JsonGenerator createGenerator(OutputStream out) throws IOException {
+    JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    return generator;
+  }
+
+  private long write(Stream<ExpenseResponse> expenses, RowWriter row) {
+    long[] count = {0};
+    expenses.forEach(expense -> {
+      try {
+        row.write(expense);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      count[0]++;
+    });
+    return count[0];
+  }
+
+  /** Writes one exported row. */
+  @FunctionalInterface
+  private interface RowWriter {
+    void write(ExpenseResponse expense) throws IOException;
+  }
+}
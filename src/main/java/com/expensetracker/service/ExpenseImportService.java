@@ -0,0 +1,250 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.dto.ExpenseChangeEvent;
+import com.expensetracker.dto.ExpenseChangeType;
+import com.expensetracker.dto.ExpenseImportResponse;
+import com.expensetracker.dto.ExpenseRequest;
+import com.expensetracker.dto.ImportRowError;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service importing many expenses at once from a JSON array or a CSV file.
+ * Input is read and validated row by row and valid rows are written with JDBC batch inserts,
+ * so memory stays bounded by the batch size. Identity-generated IDs prevent Hibernate from
+ * batching entity inserts, which is why this path bypasses the entity manager.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportService {
+
+  private static final String INSERT_SQL = "INSERT INTO expenses "
+      + "(description, amount, category, expense_date, user_id, change_version, created_at, "
+      + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final CurrentUserProvider currentUserProvider;
+  private final ExpenseRollupService rollupService;
+  private final ExpenseVersionService versionService;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Value("${expense.import.batch-size:500}")
+  private int batchSize;
+
+  @Value("${expense.import.max-reported-errors:1000}")
+  private int maxReportedErrors;
+
+  /**
+   * Imports a JSON array of expense objects shaped like {@link ExpenseRequest}.
+   *
+   * @param in the request body
+   * @return the import report
+   * @throws IOException if reading the input fails
+   * @throws InvalidInputException if the input is not a well-formed JSON array
+   */
+  @Transactional
+  public ExpenseImportResponse importJson(InputStream in) throws IOException {
+    ImportBatch batch = new ImportBatch(currentUserProvider.getCurrentUser());
+    log.info("Importing JSON expenses for user: {}", batch.user.getEmail());
+
+    try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new InvalidInputException("Expected a JSON array of expenses");
+      }
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (token == null) {
+          throw new InvalidInputException("Unexpected end of JSON input");
+        }
+        JsonNode node = objectMapper.readTree(parser);
+        long row = batch.nextRow();
+        try {
+          batch.accept(row, objectMapper.treeToValue(node, ExpenseRequest.class));
+        } catch (JsonProcessingException e) {
+          batch.reject(row, List.of("Invalid expense: " + e.getOriginalMessage()));
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new InvalidInputException("Malformed JSON: " + e.getOriginalMessage(), e);
+    }
+    return batch.finish();
+  }
+
+  /**
+   * Imports a CSV file whose header names the columns description, amount, category and
+   * expenseDate in any order. Other columns, such as the id of an export, are ignored.
+   *
+   * @param in the CSV content, UTF-8 encoded
+   * @return the import report
+   * @throws IOException if reading the input fails
+   * @throws InvalidInputException if the header is missing required columns
+   */
+  @Transactional
+  public ExpenseImportResponse importCsv(InputStream in) throws IOException {
+    ImportBatch batch = new ImportBatch(currentUserProvider.getCurrentUser());
+    log.info("Importing CSV expenses for user: {}", batch.user.getEmail());
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    List<String> header = ExpenseCsv.readRecord(reader);
+    if (header == null) {
+      throw new InvalidInputException("CSV file is empty");
+    }
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      columns.put(header.get(i).trim(), i);
+    }
+    for (String required : List.of("description", "amount", "category", "expenseDate")) {
+      if (!columns.containsKey(required)) {
+        throw new InvalidInputException("CSV header is missing column: " + required);
+      }
+    }
+
+    List<String> record;
+    while ((record = ExpenseCsv.readRecord(reader)) != null) {
+      long row = batch.nextRow();
+      try {
+        batch.accept(row, ExpenseRequest.builder()
+            .description(column(record, columns, "description"))
+            .amount(new BigDecimal(column(record, columns, "amount").trim()))
+            .category(ExpenseCategory.valueOf(column(record, columns, "category").trim()))
+            .expenseDate(LocalDate.parse(column(record, columns, "expenseDate").trim()))
+            .build());
+      } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+        batch.reject(row, List.of("Invalid expense: " + e.getMessage()));
+      }
+    }
+    return batch.finish();
+  }
+
+  private static String column(List<String> record, Map<String, Integer> columns, String name) {
+    return record.get(columns.get(name));
+  }
+
+  /** Accumulates validated rows, flushing them in JDBC batches, and tracks the report. */
+  private final class ImportBatch {
+
+    private final User user;
+    private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    private final List<Object[]> pending = new ArrayList<>();
+    private final Map<String, ExpenseAggregate> rollupAdditions = new HashMap<>();
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private long received;
+    private long imported;
+    private long rejected;
+    private Long changeVersion;
+
+    private ImportBatch(User user) {
+      this.user = user;
+    }
+
+    private long nextRow() {
+      return ++received;
+    }
+
+    private void accept(long row, ExpenseRequest request) {
+      Set<ConstraintViolation<ExpenseRequest>> violations = validator.validate(request);
+      if (!violations.isEmpty()) {
+        reject(row, violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.toList()));
+        return;
+      }
+
+      if (changeVersion == null) {
+        changeVersion = versionService.bumpForBulkWrite(user);
+      }
+      Money amount = Money.of(request.getAmount());
+      pending.add(new Object[] {
+          request.getDescription(),
+          amount.toBigDecimal(),
+          request.getCategory().name(),
+          Date.valueOf(request.getExpenseDate()),
+          user.getId(),
+          changeVersion,
+          now,
+          now
+      });
+      LocalDate monthStart = request.getExpenseDate().withDayOfMonth(1);
+      rollupAdditions.merge(monthStart + "/" + request.getCategory(),
+          new ExpenseAggregate(request.getCategory(), monthStart, amount, 1L, amount, amount),
+          ExpenseAggregate::merge);
+      if (pending.size() >= batchSize) {
+        flush();
+      }
+    }
+
+    private void reject(long row, List<String> messages) {
+      rejected++;
+      if (errors.size() < maxReportedErrors) {
+        errors.add(ImportRowError.builder().row(row).messages(messages).build());
+      }
+    }
+
+    private void flush() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      jdbcTemplate.batchUpdate(INSERT_SQL, pending);
+      imported += pending.size();
+      pending.clear();
+    }
+
+    private ExpenseImportResponse finish() {
+      flush();
+      rollupService.addAll(user, rollupAdditions.values());
+      if (changeVersion != null) {
+        eventPublisher.publishEvent(ExpenseChangeEvent.builder()
+            .userId(user.getId())
+            .type(ExpenseChangeType.RESYNC)
+            .version(changeVersion)
+            .build());
+      }
+      log.info("Imported {} of {} expenses for user {}", imported, received, user.getEmail());
+      return ExpenseImportResponse.builder()
+          .received(received)
+          .imported(imported)
+          .rejected(rejected)
+          .errors(errors)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ExpenseSortField;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.model.Money;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (sort column, id) ordering of an expense query. The ordering is part
+ * of the token so a cursor cannot be replayed against a differently sorted query.
+ * Serialized as an opaque URL-safe token so clients never depend on its layout.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class ExpenseQueryCursor {
+
+  private static final String SEPARATOR = ":";
+
+  private final ExpenseSortField sortField;
+  private final boolean ascending;
+  private final Comparable<?> value;
+  private final long id;
+
+  /**
+   * Position right after the given row.
+   *
+   * @param sortField the column the query is ordered by
+   * @param ascending whether the query is in ascending order
+   * @param last the last returned row
+   * @return the cursor for the next page
+   */
+  static ExpenseQueryCursor after(ExpenseSortField sortField, boolean ascending,
+      ExpenseResponse last) {
+    Comparable<?> value = switch (sortField) {
+      case DATE -> last.getExpenseDate();
+      case AMOUNT -> last.getAmount();
+    };
+    return new ExpenseQueryCursor(sortField, ascending, value, last.getId());
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @param token the opaque cursor token
+   * @return the decoded cursor
+   * @throws InvalidInputException if the token is malformed
+   */
+  static ExpenseQueryCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = raw.split(SEPARATOR, -1);
+      if (parts.length != 4) {
+        throw new InvalidInputException("Invalid cursor");
+      }
+      ExpenseSortField sortField = ExpenseSortField.valueOf(parts[0]);
+      Comparable<?> value = switch (sortField) {
+        case DATE -> LocalDate.parse(parts[2]);
+        case AMOUNT -> Money.parse(parts[2]);
+      };
+      return new ExpenseQueryCursor(sortField, Boolean.parseBoolean(parts[1]), value,
+          Long.parseLong(parts[3]));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidInputException("Invalid cursor", e);
+    }
+  }
+
+  /**
+   * Encodes this cursor as an opaque URL-safe token.
+   *
+   * @return the token
+   */
+  String encode() {
+    String raw = sortField.name() + SEPARATOR + ascending + SEPARATOR
+        + value + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,155 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseFilter;
+import com.expensetracker.dto.ExpensePageResponse;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ExpenseSortField;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service answering multi-criteria expense queries with keyset pagination.
+ * Criteria are composed as JPA specifications on top of the owner predicate, and the keyset
+ * position is expressed on the sort column so every page is a bounded index range scan.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseQueryService {
+
+  private final ExpenseRepository expenseRepository;
+  private final CurrentUserProvider currentUserProvider;
+
+  @Value("${expense.pagination.default-size:50}")
+  private int defaultPageSize;
+
+  @Value("${expense.pagination.max-size:500}")
+  private int maxPageSize;
+
+  /**
+   * Retrieves a page of the current user's expenses matching all given criteria.
+   *
+   * @param filter the criteria and ordering
+   * @param cursor the continuation token from the previous page, or null for the first page
+   * @param size the requested page size, or null for the default
+   * @return the requested page of expenses
+   * @throws InvalidInputException if a range is inverted, the size is not positive or the
+   *     cursor does not belong to this ordering
+   */
+  @Transactional(readOnly = true)
+  public ExpensePageResponse query(ExpenseFilter filter, String cursor, Integer size) {
+    if (filter.getStartDate() != null && filter.getEndDate() != null
+        && filter.getStartDate().isAfter(filter.getEndDate())) {
+      log.error("Start date {} is after end date {}", filter.getStartDate(), filter.getEndDate());
+      throw new InvalidInputException("Start date must be before or equal to end date");
+    }
+    if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+        && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+      log.error("Minimum amount {} is above maximum amount {}", filter.getMinAmount(),
+          filter.getMaxAmount());
+      throw new InvalidInputException("Minimum amount must not exceed maximum amount");
+    }
+    if (size != null && size < 1) {
+      log.error("Invalid page size: {}", size);
+      throw new InvalidInputException("Page size must be greater than 0");
+    }
+    int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+
+    User user = currentUserProvider.getCurrentUser();
+    log.info("Querying expenses for user {} with {}", user.getEmail(), filter);
+
+    List<Specification<Expense>> criteria = new ArrayList<>();
+    if (filter.getMinAmount() != null) {
+      criteria.add(ExpenseSpecifications.amountAtLeast(filter.getMinAmount()));
+    }
+    if (filter.getMaxAmount() != null) {
+      criteria.add(ExpenseSpecifications.amountAtMost(filter.getMaxAmount()));
+    }
+    if (filter.getStartDate() != null) {
+      criteria.add(ExpenseSpecifications.dateFrom(filter.getStartDate()));
+    }
+    if (filter.getEndDate() != null) {
+      criteria.add(ExpenseSpecifications.dateTo(filter.getEndDate()));
+    }
+    if (filter.getText() != null && !filter.getText().isBlank()) {
+      criteria.add(ExpenseSpecifications.descriptionContains(filter.getText().trim()));
+    }
+    if (cursor != null) {
+      criteria.add(after(filter, ExpenseQueryCursor.decode(cursor)));
+    }
+
+    List<ExpenseResponse> expenses = findPage(user, filter, criteria, pageSize + 1);
+    boolean hasMore = expenses.size() > pageSize;
+    List<ExpenseResponse> rows = hasMore ? expenses.subList(0, pageSize) : expenses;
+    return ExpensePageResponse.builder()
+        .items(rows)
+        .nextCursor(hasMore
+            ? ExpenseQueryCursor.after(filter.getSortField(), filter.isAscending(),
+                rows.get(rows.size() - 1)).encode()
+            : null)
+        .hasMore(hasMore)
+        .build();
+  }
+
+  /**
+   * Reads the page, in date order with several categories as one query per category. A single
+   * range over idx_user_category_date per category is in index order, while their union would
+   * need a filesort of every matching row; merging the per-category pages only sorts a few
+   * pages.
+   */
+  private List<ExpenseResponse> findPage(User user, ExpenseFilter filter,
+      List<Specification<Expense>> criteria, int limit) {
+    Sort sort = ExpenseSpecifications.sort(filter.getSortField(), filter.isAscending());
+    Set<ExpenseCategory> categories = filter.getCategories();
+    if (categories == null || categories.isEmpty()) {
+      return expenseRepository.findPage(user, Specification.allOf(criteria), sort, limit);
+    }
+    if (categories.size() == 1 || filter.getSortField() != ExpenseSortField.DATE) {
+      return expenseRepository.findPage(user,
+          Specification.allOf(criteria).and(ExpenseSpecifications.categoryIn(categories)),
+          sort, limit);
+    }
+
+    List<ExpenseResponse> merged = new ArrayList<>();
+    for (ExpenseCategory category : categories) {
+      merged.addAll(expenseRepository.findPage(user,
+          Specification.allOf(criteria).and(ExpenseSpecifications.categoryIn(Set.of(category))),
+          sort, limit));
+    }
+    Comparator<ExpenseResponse> order = Comparator.comparing(ExpenseResponse::getExpenseDate)
+        .thenComparing(ExpenseResponse::getId);
+    merged.sort(filter.isAscending() ? order : order.reversed());
+    return merged.size() > limit ? merged.subList(0, limit) : merged;
+  }
+
+  private static Specification<Expense> after(ExpenseFilter filter, ExpenseQueryCursor cursor) {
+    if (cursor.getSortField() != filter.getSortField()
+        || cursor.isAscending() != filter.isAscending()) {
+      throw new InvalidInputException("Cursor does not match the requested sort");
+    }
+    return switch (cursor.getSortField()) {
+      case DATE -> ExpenseSpecifications.after(cursor.getSortField(), cursor.isAscending(),
+          (LocalDate) cursor.getValue(), cursor.getId());
+      case AMOUNT -> ExpenseSpecifications.after(cursor.getSortField(), cursor.isAscending(),
+          (Money) cursor.getValue(), cursor.getId());
+    };
+  }
+}
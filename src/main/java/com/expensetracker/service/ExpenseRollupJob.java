@@ -0,0 +1,79 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+
+/**
+ * Background maintenance of the monthly rollups: backfills them on the first start after
+ * deployment and periodically verifies every user against the expenses table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpenseRollupJob {
+
+  private static final int USER_BATCH_SIZE = 100;
+
+  private final ExpenseRollupService rollupService;
+  private final ExpenseMonthlyRollupRepository rollupRepository;
+  private final ExpenseRepository expenseRepository;
+  private final UserRepository userRepository;
+
+  /**
+   * Builds all rollups when the table is empty but expenses already exist.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    if (rollupRepository.count() == 0 && expenseRepository.count() > 0) {
+      log.info("Expense rollups are empty, backfilling from expenses");
+      int rebuilt = forEachUser(user -> {
+        rollupService.rebuild(user);
+        return true;
+      });
+      log.info("Backfilled rollups for {} users", rebuilt);
+    }
+  }
+
+  /**
+   * Verifies the rollups of every user and rebuilds the ones that drifted.
+   */
+  @Scheduled(cron = "${expense.rollup.verify-cron:0 30 3 * * *}")
+  public void verifyAll() {
+    int repaired = forEachUser(user -> !rollupService.verify(user));
+    log.info("Rollup verification finished, {} users repaired", repaired);
+  }
+
+  private int forEachUser(Predicate<User> action) {
+    int matched = 0;
+    Pageable pageable = PageRequest.of(0, USER_BATCH_SIZE, Sort.by("id"));
+    Page<User> page;
+    do {
+      page = userRepository.findAll(pageable);
+      for (User user : page) {
+        try {
+          if (action.test(user)) {
+            matched++;
+          }
+        } catch (RuntimeException e) {
+          log.error("Rollup maintenance failed for user {}", user.getEmail(), e);
+        }
+      }
+      pageable = page.nextPageable();
+    } while (page.hasNext());
+    return matched;
+  }
+}
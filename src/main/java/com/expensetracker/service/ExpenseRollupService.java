@@ -0,0 +1,291 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.ExpenseMonthlyRollup;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the per-user monthly rollups and answering summaries from them.
+ * Writes join the caller's transaction so rollups always commit together with the expense
+ * change that caused them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseRollupService {
+
+  private final ExpenseMonthlyRollupRepository rollupRepository;
+  private final ExpenseRepository expenseRepository;
+  private final UserRepository userRepository;
+
+  /**
+   * Adds an expense amount to its (month, category) rollup.
+   *
+   * @param user the expense owner
+   * @param expenseDate the expense date
+   * @param category the expense category
+   * @param amount the expense amount
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void add(User user, LocalDate expenseDate, ExpenseCategory category, Money amount) {
+    addAll(user, List.of(
+        new ExpenseAggregate(category, monthStart(expenseDate), amount, 1L, amount, amount)));
+  }
+
+  /**
+   * Adds pre-aggregated groups of new expenses to their rollups, e.g. after a bulk import.
+   *
+   * @param user the expense owner
+   * @param additions aggregates keyed by category and month start
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void addAll(User user, Collection<ExpenseAggregate> additions) {
+    for (ExpenseAggregate addition : additions) {
+      ExpenseMonthlyRollup rollup = rollupRepository
+          .findForUpdate(user, addition.getPeriodStart(), addition.getCategory())
+          .orElseGet(() -> ExpenseMonthlyRollup.builder()
+              .user(user)
+              .monthStart(addition.getPeriodStart())
+              .category(addition.getCategory())
+              .totalAmount(Money.ZERO)
+              .expenseCount(0)
+              .build());
+
+      rollup.setTotalAmount(rollup.getTotalAmount().plus(addition.getTotal()));
+      rollup.setExpenseCount(rollup.getExpenseCount() + addition.getCount());
+      if (rollup.getMinAmount() == null
+          || addition.getMin().compareTo(rollup.getMinAmount()) < 0) {
+        rollup.setMinAmount(addition.getMin());
+      }
+      if (rollup.getMaxAmount() == null
+          || addition.getMax().compareTo(rollup.getMaxAmount()) > 0) {
+        rollup.setMaxAmount(addition.getMax());
+      }
+      rollupRepository.save(rollup);
+    }
+  }
+
+  /**
+   * Subtracts an expense amount from its (month, category) rollup. Must be called after the
+   * expense row itself was changed or deleted: when the removed amount was the bucket's
+   * minimum or maximum, those are re-read from the expenses of that single month.
+   *
+   * @param user the expense owner
+   * @param expenseDate the expense date before the change
+   * @param category the expense category before the change
+   * @param amount the expense amount before the change
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void remove(User user, LocalDate expenseDate, ExpenseCategory category, Money amount) {
+    removeAll(user, List.of(
+        new ExpenseAggregate(category, monthStart(expenseDate), amount, 1L, amount, amount)));
+  }
+
+  /**
+   * Subtracts pre-aggregated groups of changed or deleted expenses from their rollups, e.g.
+   * after a batch mutation. Must be called after the expense rows themselves were written.
+   *
+   * @param user the expense owner
+   * @param removals aggregates of the previous values keyed by category and month start
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void removeAll(User user, Collection<ExpenseAggregate> removals) {
+    for (ExpenseAggregate removal : removals) {
+      LocalDate monthStart = removal.getPeriodStart();
+      ExpenseCategory category = removal.getCategory();
+      ExpenseMonthlyRollup rollup = rollupRepository.findForUpdate(user, monthStart, category)
+          .orElse(null);
+      if (rollup == null) {
+        log.warn("Missing rollup for user {} month {} category {}; left for the verification job",
+            user.getEmail(), monthStart, category);
+        continue;
+      }
+
+      if (rollup.getExpenseCount() <= removal.getCount()) {
+        rollupRepository.delete(rollup);
+        continue;
+      }
+
+      rollup.setTotalAmount(rollup.getTotalAmount().minus(removal.getTotal()));
+      rollup.setExpenseCount(rollup.getExpenseCount() - removal.getCount());
+      if (removal.getMin().compareTo(rollup.getMinAmount()) <= 0
+          || removal.getMax().compareTo(rollup.getMaxAmount()) >= 0) {
+        ExpenseAggregate bucket = expenseRepository.summarizeCategoryInRange(
+            user, category, monthStart, monthStart.with(TemporalAdjusters.lastDayOfMonth()));
+        rollup.setMinAmount(bucket.getMin());
+        rollup.setMaxAmount(bucket.getMax());
+      }
+      rollupRepository.save(rollup);
+    }
+  }
+
+  /**
+   * Summarizes a date range per category. Whole months inside the range are read from the
+   * rollups; only the partial months at either end scan the expenses table.
+   *
+   * @param user the expense owner
+   * @param startDate the inclusive start date
+   * @param endDate the inclusive end date
+   * @return one aggregate per category with expenses, in category order
+   */
+  @Transactional(readOnly = true)
+  public List<ExpenseAggregate> summarizeByCategory(
+      User user, LocalDate startDate, LocalDate endDate) {
+    List<ExpenseAggregate> parts = collect(user, startDate, endDate,
+        expenseRepository::summarizeByCategory);
+    Map<ExpenseCategory, ExpenseAggregate> byCategory = new EnumMap<>(ExpenseCategory.class);
+    for (ExpenseAggregate part : parts) {
+      byCategory.merge(part.getCategory(), part.rekey(part.getCategory(), null),
+          ExpenseAggregate::merge);
+    }
+    return new ArrayList<>(byCategory.values());
+  }
+
+  /**
+   * Summarizes a date range per calendar month, reading whole months from the rollups.
+   *
+   * @param user the expense owner
+   * @param startDate the inclusive start date
+   * @param endDate the inclusive end date
+   * @return one aggregate per month with expenses, in ascending order
+   */
+  @Transactional(readOnly = true)
+  public List<ExpenseAggregate> summarizeByMonth(
+      User user, LocalDate startDate, LocalDate endDate) {
+    List<ExpenseAggregate> parts = collect(user, startDate, endDate,
+        expenseRepository::summarizeByMonth);
+    Map<LocalDate, ExpenseAggregate> byMonth = new TreeMap<>();
+    for (ExpenseAggregate part : parts) {
+      byMonth.merge(part.getPeriodStart(), part.rekey(null, part.getPeriodStart()),
+          ExpenseAggregate::merge);
+    }
+    return new ArrayList<>(byMonth.values());
+  }
+
+  /**
+   * Recomputes all rollups of a user from the expenses table. The user row is locked first, as
+   * expense writers do when bumping the version, so no expense can commit between reading the
+   * totals and replacing the rollups.
+   *
+   * @param user the expense owner
+   */
+  @Transactional
+  public void rebuild(User user) {
+    userRepository.lockExpenseVersion(user.getId());
+    rollupRepository.deleteByUser(user);
+    List<ExpenseMonthlyRollup> rollups = expenseRepository.summarizeByMonthAndCategory(user)
+        .stream()
+        .map(aggregate -> ExpenseMonthlyRollup.builder()
+            .user(user)
+            .monthStart(aggregate.getPeriodStart())
+            .category(aggregate.getCategory())
+            .totalAmount(aggregate.getTotal())
+            .expenseCount(aggregate.getCount())
+            .minAmount(aggregate.getMin())
+            .maxAmount(aggregate.getMax())
+            .build())
+        .collect(Collectors.toList());
+    rollupRepository.saveAll(rollups);
+    log.info("Rebuilt {} rollups for user {}", rollups.size(), user.getEmail());
+  }
+
+  /**
+   * Compares the stored rollups of a user with the expenses table and rebuilds them on drift.
+   * Holds the user row lock like {@link #rebuild(User)}, so writes in progress cannot be
+   * mistaken for drift.
+   *
+   * @param user the expense owner
+   * @return true if the rollups were consistent, false if they had to be rebuilt
+   */
+  @Transactional
+  public boolean verify(User user) {
+    userRepository.lockExpenseVersion(user.getId());
+    Map<String, ExpenseAggregate> expected = expenseRepository.summarizeByMonthAndCategory(user)
+        .stream()
+        .collect(Collectors.toMap(
+            aggregate -> key(aggregate.getPeriodStart(), aggregate.getCategory()),
+            Function.identity()));
+    List<ExpenseMonthlyRollup> stored = rollupRepository.findByUser(user);
+
+    boolean consistent = stored.size() == expected.size()
+        && stored.stream().allMatch(rollup -> matches(rollup,
+            expected.get(key(rollup.getMonthStart(), rollup.getCategory()))));
+    if (!consistent) {
+      log.warn("Rollups of user {} drifted from expenses, rebuilding", user.getEmail());
+      rebuild(user);
+    }
+    return consistent;
+  }
+
+  private List<ExpenseAggregate> collect(User user, LocalDate startDate, LocalDate endDate,
+      RangeAggregation scan) {
+    LocalDate firstFullMonth = startDate.getDayOfMonth() == 1
+        ? startDate
+        : monthStart(startDate).plusMonths(1);
+    LocalDate lastFullMonthEnd = endDate.equals(endDate.with(TemporalAdjusters.lastDayOfMonth()))
+        ? endDate
+        : monthStart(endDate).minusDays(1);
+
+    if (firstFullMonth.isAfter(lastFullMonthEnd)) {
+      return scan.aggregate(user, startDate, endDate);
+    }
+
+    List<ExpenseAggregate> parts = new ArrayList<>();
+    rollupRepository.findByUserAndMonthStartBetweenOrderByMonthStart(
+            user, firstFullMonth, monthStart(lastFullMonthEnd))
+        .forEach(rollup -> parts.add(new ExpenseAggregate(rollup.getCategory(),
+            rollup.getMonthStart(), rollup.getTotalAmount(), rollup.getExpenseCount(),
+            rollup.getMinAmount(), rollup.getMaxAmount())));
+    if (startDate.isBefore(firstFullMonth)) {
+      parts.addAll(scan.aggregate(user, startDate, firstFullMonth.minusDays(1)));
+    }
+    if (endDate.isAfter(lastFullMonthEnd)) {
+      parts.addAll(scan.aggregate(user, lastFullMonthEnd.plusDays(1), endDate));
+    }
+    return parts;
+  }
+
+  private static boolean matches(ExpenseMonthlyRollup rollup, ExpenseAggregate expected) {
+    return expected != null
+        && rollup.getExpenseCount() == expected.getCount()
+        && rollup.getTotalAmount().compareTo(expected.getTotal()) == 0
+        && Objects.equals(rollup.getMinAmount(), expected.getMin())
+        && Objects.equals(rollup.getMaxAmount(), expected.getMax());
+  }
+
+  private static String key(LocalDate monthStart, ExpenseCategory category) {
+    return monthStart + "/" + category;
+  }
+
+  private static LocalDate monthStart(LocalDate date) {
+    return date.withDayOfMonth(1);
+  }
+
+  /** An aggregate query over the expenses table restricted to a date range. */
+  @FunctionalInterface
+  private interface RangeAggregation {
+    List<ExpenseAggregate> aggregate(User user, LocalDate startDate, LocalDate endDate);
+  }
+}
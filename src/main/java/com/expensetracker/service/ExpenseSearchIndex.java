@@ -0,0 +1,222 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseResponse;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the expense descriptions of one user.
+ * Terms are kept in a sorted map so a query token matches every term it is a prefix of with one
+ * range lookup. Results are ranked by the inverse document frequency of the matched terms,
+ * exact matches weighing more than prefix matches, and normalized by description length.
+ * Callers guard access with {@link #getLock()}.
+ */
+final class ExpenseSearchIndex {
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+  private static final double PREFIX_WEIGHT = 0.5;
+
+  private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::getScore)
+      .thenComparing(hit -> hit.getExpense().getExpenseDate())
+      .thenComparing(hit -> hit.getExpense().getId());
+
+  private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+  private final Map<Long, Document> documents = new HashMap<>();
+  @Getter
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** The user expense version the index reflects. */
+  @Getter
+  private long version;
+
+  ExpenseSearchIndex(long version) {
+    this.version = version;
+  }
+
+  /**
+   * Splits text into lower-case, accent-free terms of letters and digits.
+   *
+   * @param text the text to tokenize, may be null
+   * @return the distinct terms in order of first occurrence
+   */
+  static List<String> tokenize(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+        .replaceAll("")
+        .toLowerCase(Locale.ROOT);
+    Set<String> terms = new LinkedHashSet<>();
+    for (String term : SEPARATORS.split(folded)) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return new ArrayList<>(terms);
+  }
+
+  int size() {
+    return documents.size();
+  }
+
+  void setVersion(long version) {
+    this.version = version;
+  }
+
+  /**
+   * Adds an expense or replaces the indexed copy of it.
+   *
+   * @param expense the expense as currently stored
+   */
+  void put(ExpenseResponse expense) {
+    remove(expense.getId());
+    String[] terms = tokenize(expense.getDescription()).toArray(String[]::new);
+    documents.put(expense.getId(), new Document(expense, terms));
+    for (String term : terms) {
+      postings.computeIfAbsent(term, key -> new HashSet<>()).add(expense.getId());
+    }
+  }
+
+  void putAll(Collection<ExpenseResponse> expenses) {
+    expenses.forEach(this::put);
+  }
+
+  /**
+   * Removes an expense from the index; unknown IDs are ignored.
+   *
+   * @param expenseId the expense ID
+   */
+  void remove(Long expenseId) {
+    Document document = documents.remove(expenseId);
+    if (document == null) {
+      return;
+    }
+    for (String term : document.terms) {
+      Set<Long> ids = postings.get(term);
+      ids.remove(expenseId);
+      if (ids.isEmpty()) {
+        postings.remove(term);
+      }
+    }
+  }
+
+  void removeAll(Collection<Long> expenseIds) {
+    expenseIds.forEach(this::remove);
+  }
+
+  /**
+   * Finds the expenses whose description has, for every query token, a term starting with it.
+   *
+   * @param tokens the tokenized query, not empty
+   * @param filter additional condition on the matched expenses
+   * @param limit the maximum number of expenses returned
+   * @return the best ranked matches and the total number of matches
+   */
+  Result search(List<String> tokens, Predicate<ExpenseResponse> filter, int limit) {
+    Map<Long, Double> scores = null;
+    for (String token : tokens) {
+      Map<Long, Double> tokenScores = score(token, scores);
+      if (tokenScores.isEmpty()) {
+        return new Result(List.of(), 0);
+      }
+      if (scores != null) {
+        Map<Long, Double> previous = scores;
+        tokenScores.replaceAll((id, score) -> score + previous.get(id));
+      }
+      scores = tokenScores;
+    }
+
+    PriorityQueue<Hit> best = new PriorityQueue<>(RANKING);
+    int total = 0;
+    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+      Document document = documents.get(entry.getKey());
+      if (!filter.test(document.expense)) {
+        continue;
+      }
+      total++;
+      best.add(new Hit(document.expense,
+          entry.getValue() / Math.sqrt(Math.max(1, document.terms.length))));
+      if (best.size() > limit) {
+        best.poll();
+      }
+    }
+
+    Hit[] ranked = best.toArray(Hit[]::new);
+    Arrays.sort(ranked, RANKING.reversed());
+    List<ExpenseResponse> expenses = new ArrayList<>(ranked.length);
+    for (Hit hit : ranked) {
+      expenses.add(hit.getExpense());
+    }
+    return new Result(expenses, total);
+  }
+
+  /**
+   * Scores the documents matching one query token, keeping for each document the best matching
+   * term. When candidates are given only those are scored.
+   */
+  private Map<Long, Double> score(String token, Map<Long, Double> candidates) {
+    Map<Long, Double> scores = new HashMap<>();
+    for (Map.Entry<String, Set<Long>> posting
+        : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+      Set<Long> ids = posting.getValue();
+      double weight = Math.log(1.0 + (double) documents.size() / ids.size())
+          * (posting.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT);
+      if (candidates != null && candidates.size() < ids.size()) {
+        for (Long id : candidates.keySet()) {
+          if (ids.contains(id)) {
+            scores.merge(id, weight, Math::max);
+          }
+        }
+      } else {
+        for (Long id : ids) {
+          if (candidates == null || candidates.containsKey(id)) {
+            scores.merge(id, weight, Math::max);
+          }
+        }
+      }
+    }
+    return scores;
+  }
+
+  /** The ranked matches of a search and how many expenses matched in total. */
+  @Getter
+  @RequiredArgsConstructor
+  static final class Result {
+    private final List<ExpenseResponse> expenses;
+    private final int total;
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static final class Hit {
+    private final ExpenseResponse expense;
+    private final double score;
+  }
+
+  @RequiredArgsConstructor
+  private static final class Document {
+    private final ExpenseResponse expense;
+    private final String[] terms;
+  }
+}
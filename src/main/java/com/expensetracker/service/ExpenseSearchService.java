@@ -0,0 +1,205 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseChangeEvent;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ExpenseSearchResponse;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseTombstoneRepository;
+import com.expensetracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Service answering full-text searches over expense descriptions from per-user in-memory
+ * indexes. An index is built from the database on a user's first search and kept in step with
+ * the user's expense version: changes committed on this instance are applied from their change
+ * events, anything else (bulk writes, other instances) is caught up through the delta sync
+ * queries before searching. Indexes are bounded by the total number of indexed expenses and
+ * evicted least recently used first.
+ */
+@Slf4j
+@Service
+public class ExpenseSearchService {
+
+  private final ExpenseRepository expenseRepository;
+  private final ExpenseTombstoneRepository tombstoneRepository;
+  private final UserRepository userRepository;
+  private final CurrentUserProvider currentUserProvider;
+  private final Cache<Long, ExpenseSearchIndex> indexes;
+
+  @Value("${expense.pagination.default-size:50}")
+  private int defaultLimit;
+
+  @Value("${expense.pagination.max-size:500}")
+  private int maxLimit;
+
+  public ExpenseSearchService(ExpenseRepository expenseRepository,
+      ExpenseTombstoneRepository tombstoneRepository, UserRepository userRepository,
+      CurrentUserProvider currentUserProvider,
+      @Value("${expense.search.max-indexed-expenses:1000000}") long maxIndexedExpenses,
+      @Value("${expense.search.expire-after-access:1h}") Duration expireAfterAccess,
+      MeterRegistry meterRegistry) {
+    this.expenseRepository = expenseRepository;
+    this.tombstoneRepository = tombstoneRepository;
+    this.userRepository = userRepository;
+    this.currentUserProvider = currentUserProvider;
+    this.indexes = Caffeine.newBuilder()
+        .maximumWeight(maxIndexedExpenses)
+        .weigher((Long userId, ExpenseSearchIndex index) -> Math.max(1, index.size()))
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, indexes, "expense.search.indexes");
+  }
+
+  /**
+   * Searches the current user's expense descriptions. Every word of the query must match the
+   * start of a word in the description; results are ranked by relevance, then newest first.
+   *
+   * @param query the search text
+   * @param startDate optional inclusive start date
+   * @param endDate optional inclusive end date
+   * @param category optional category
+   * @param minAmount optional inclusive minimum amount
+   * @param maxAmount optional inclusive maximum amount
+   * @param limit the maximum number of results, or null for the default page size
+   * @return the best ranked matches and the total number of matches
+   * @throws InvalidInputException if the query has no words or a range is inverted
+   */
+  @Transactional(readOnly = true)
+  public ExpenseSearchResponse search(String query, LocalDate startDate, LocalDate endDate,
+      ExpenseCategory category, Money minAmount, Money maxAmount, Integer limit) {
+    List<String> tokens = ExpenseSearchIndex.tokenize(query);
+    if (tokens.isEmpty()) {
+      log.error("Search query without words: {}", query);
+      throw new InvalidInputException("Search query must contain a letter or digit");
+    }
+    if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+      log.error("Start date {} is after end date {}", startDate, endDate);
+      throw new InvalidInputException("Start date must be before or equal to end date");
+    }
+    if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+      log.error("Minimum amount {} is above maximum amount {}", minAmount, maxAmount);
+      throw new InvalidInputException("Minimum amount must not exceed maximum amount");
+    }
+    if (limit != null && limit < 1) {
+      log.error("Invalid search limit: {}", limit);
+      throw new InvalidInputException("Limit must be greater than 0");
+    }
+
+    User user = currentUserProvider.getCurrentUser();
+    ExpenseSearchIndex index = synchronizedIndex(user);
+    Predicate<ExpenseResponse> filter = expense ->
+        (startDate == null || !expense.getExpenseDate().isBefore(startDate))
+            && (endDate == null || !expense.getExpenseDate().isAfter(endDate))
+            && (category == null || expense.getCategory() == category)
+            && (minAmount == null || expense.getAmount().compareTo(minAmount) >= 0)
+            && (maxAmount == null || expense.getAmount().compareTo(maxAmount) <= 0);
+
+    int resolvedLimit = limit == null ? defaultLimit : Math.min(limit, maxLimit);
+    ExpenseSearchIndex.Result result;
+    Lock lock = index.getLock().readLock();
+    lock.lock();
+    try {
+      result = index.search(tokens, filter, resolvedLimit);
+    } finally {
+      lock.unlock();
+    }
+    log.debug("Search {} of user {} matched {} expenses", tokens, user.getEmail(),
+        result.getTotal());
+    return ExpenseSearchResponse.builder()
+        .items(result.getExpenses())
+        .total(result.getTotal())
+        .build();
+  }
+
+  /**
+   * Applies a committed single-expense change to the owner's index when it directly follows the
+   * indexed version. Other changes are left to the catch-up on the next search.
+   *
+   * @param event the change
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onChange(ExpenseChangeEvent event) {
+    ExpenseSearchIndex index = indexes.policy().getIfPresentQuietly(event.getUserId());
+    if (index == null) {
+      return;
+    }
+    Lock lock = index.getLock().writeLock();
+    lock.lock();
+    try {
+      if (index.getVersion() + 1 != event.getVersion()) {
+        return;
+      }
+      switch (event.getType()) {
+        case CREATED, UPDATED -> index.put(event.getExpense());
+        case DELETED -> index.remove(event.getExpenseId());
+        case RESYNC -> {
+          return;
+        }
+      }
+      index.setVersion(event.getVersion());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ExpenseSearchIndex synchronizedIndex(User user) {
+    long currentVersion = userRepository.findExpenseVersion(user.getId());
+    ExpenseSearchIndex index = indexes.get(user.getId(), userId -> build(user, currentVersion));
+    if (index.getVersion() >= currentVersion) {
+      return index;
+    }
+
+    Lock lock = index.getLock().writeLock();
+    lock.lock();
+    try {
+      long indexedVersion = index.getVersion();
+      if (indexedVersion < currentVersion) {
+        List<ExpenseResponse> changed =
+            expenseRepository.findChangedBetween(user, indexedVersion, currentVersion);
+        List<Long> deleted =
+            tombstoneRepository.findDeletedExpenseIds(user, indexedVersion, currentVersion);
+        index.removeAll(deleted);
+        index.putAll(changed);
+        index.setVersion(currentVersion);
+        log.debug("Caught up search index of user {} from version {} to {}", user.getEmail(),
+            indexedVersion, currentVersion);
+      }
+    } finally {
+      lock.unlock();
+    }
+    // Re-inserting lets the cache account for the new index size.
+    indexes.put(user.getId(), index);
+    return index;
+  }
+
+  private ExpenseSearchIndex build(User user, long version) {
+    ExpenseSearchIndex index = new ExpenseSearchIndex(version);
+    try (Stream<ExpenseResponse> expenses = expenseRepository.streamByUser(user)) {
+      expenses.forEach(index::put);
+    }
+    log.info("Built search index of user {} with {} expenses at version {}", user.getEmail(),
+        index.size(), version);
+    return index;
+  }
+}
@@ -1,22 +1,38 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.dto.ExpenseChangeEvent;
+import com.expensetracker.dto.ExpenseChangeType;
+import com.expensetracker.dto.ExpensePageResponse;
 import com.expensetracker.dto.ExpenseRequest;
 import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.ExpenseSummaryResponse;
+import com.expensetracker.dto.SummaryBucket;
+import com.expensetracker.dto.SummaryEntry;
 import com.expensetracker.exception.InvalidInputException;
 import com.expensetracker.exception.ResourceNotFoundException;
 import com.expensetracker.exception.UnauthorizedException;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.ExpenseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -28,30 +44,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ExpenseService {
 
+  /** Bounds of the MySQL DATE type, used when a summary covers all expenses. */
+  private static final LocalDate SUMMARY_MIN_DATE = LocalDate.of(1000, 1, 1);
+  private static final LocalDate SUMMARY_MAX_DATE = LocalDate.of(9999, 12, 31);
+
   private final ExpenseRepository expenseRepository;
+  private final ExpenseRollupService rollupService;
+  private final CurrentUserProvider currentUserProvider;
+  private final ExpenseVersionService versionService;
+  private final ExpenseSyncService syncService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ExpenseColumnCache columnCache;
 
-  /**
-   * Retrieves the currently authenticated user from the security context.
-   *
-   * @return the current user
-   * @throws UnauthorizedException if user is not authenticated
-   */
-  private User getCurrentUser() {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    
-    if (authentication == null || !authentication.isAuthenticated()) {
-      log.error("No authentication found in security context");
-      throw new UnauthorizedException("User not authenticated");
-    }
-    
-    Object principal = authentication.getPrincipal();
-    if (!(principal instanceof User)) {
-      log.error("Principal is not an instance of User: {}", principal.getClass().getName());
-      throw new UnauthorizedException("Invalid authentication principal");
-    }
-    
-    return (User) principal;
-  }
+  @Value("${expense.pagination.default-size:50}")
+  private int defaultPageSize;
+
+  @Value("${expense.pagination.max-size:500}")
+  private int maxPageSize;
 
   /**
    * Maps an Expense entity to an ExpenseResponse DTO.
@@ -59,7 +68,7 @@ public class ExpenseService {
    * @param expense the expense entity
    * @return the expense response DTO
    */
-  private ExpenseResponse mapToResponse(Expense expense) {
+  static ExpenseResponse mapToResponse(Expense expense) {
     return ExpenseResponse.builder()
         .id(expense.getId())
         .description(expense.getDescription())
@@ -70,26 +79,80 @@ public class ExpenseService {
   }
     
   /**
-   * Retrieves all expenses for the current user.
+   * Resolves the requested page size against the configured default and maximum.
+   *
+   * @param size the requested page size, or null for the default
+   * @return the effective page size
+   * @throws InvalidInputException if the size is not positive
+   */
+  private int resolvePageSize(Integer size) {
+    if (size == null) {
+      return defaultPageSize;
+    }
+    if (size < 1) {
+      log.error("Invalid page size: {}", size);
+      throw new InvalidInputException("Page size must be greater than 0");
+    }
+    return Math.min(size, maxPageSize);
+  }
+
+  /**
+   * Builds a page from rows fetched with one extra element used to detect a following page.
+   *
+   * @param expenses the fetched rows, at most pageSize + 1
+   * @param pageSize the effective page size
+   * @return the page response
+   */
+  private ExpensePageResponse toPage(List<ExpenseResponse> expenses, int pageSize) {
+    boolean hasMore = expenses.size() > pageSize;
+    List<ExpenseResponse> rows = hasMore ? expenses.subList(0, pageSize) : expenses;
+    String nextCursor = null;
+    if (hasMore) {
+      ExpenseResponse last = rows.get(rows.size() - 1);
+      nextCursor = ExpenseCursor.after(last.getExpenseDate(), last.getId()).encode();
+    }
+    return ExpensePageResponse.builder()
+        .items(rows)
+        .nextCursor(nextCursor)
+        .hasMore(hasMore)
+        .build();
+  }
+    
+  /**
+   * Retrieves a page of expenses for the current user, newest first.
    *
-   * @return list of all user expenses
+   * @param cursor the continuation token from the previous page, or null for the first page
+   * @param size the requested page size, or null for the default
+   * @return the requested page of expenses
    */
-  public List<ExpenseResponse> getAllExpenses() {
-    User user = getCurrentUser();
-    return expenseRepository.findByUserOrderByExpenseDateDesc(user).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+  @Transactional(readOnly = true)
+  public ExpensePageResponse getAllExpenses(String cursor, Integer size) {
+    User user = currentUserProvider.getCurrentUser();
+    int pageSize = resolvePageSize(size);
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+
+    if (cursor == null) {
+      return toPage(expenseRepository.findPageByUser(user, versionService.current(user), limit),
+          pageSize);
+    }
+    ExpenseCursor position = ExpenseCursor.decode(cursor);
+    return toPage(expenseRepository.findPageByUserBefore(
+        user, position.getExpenseDate(), position.getId(), limit), pageSize);
   }
 
   /**
-   * Retrieves expenses within a specific date range.
+   * Retrieves a page of expenses within a specific date range, newest first.
    *
    * @param startDate the start date
    * @param endDate the end date
-   * @return list of expenses within the date range
+   * @param cursor the continuation token from the previous page, or null for the first page
+   * @param size the requested page size, or null for the default
+   * @return the requested page of expenses within the date range
    * @throws InvalidInputException if dates are invalid
    */
-  public List<ExpenseResponse> getExpensesByDateRange(LocalDate startDate, LocalDate endDate) {
+  @Transactional(readOnly = true)
+  public ExpensePageResponse getExpensesByDateRange(
+      LocalDate startDate, LocalDate endDate, String cursor, Integer size) {
     if (startDate == null || endDate == null) {
       log.error("Start date or end date is null");
       throw new InvalidInputException("Start date and end date are required");
@@ -100,45 +163,135 @@ public class ExpenseService {
       throw new InvalidInputException("Start date must be before or equal to end date");
     }
     
-    User user = getCurrentUser();
+    User user = currentUserProvider.getCurrentUser();
+    int pageSize = resolvePageSize(size);
     log.info("Fetching expenses for user {} between {} and {}", user.getEmail(), startDate, endDate);
-    
-    return expenseRepository.findByUserAndDateRange(user, startDate, endDate).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+
+    ExpenseCursor position = cursor == null
+        ? ExpenseCursor.startingAt(endDate)
+        : ExpenseCursor.decode(cursor);
+    return toPage(expenseRepository.findPageByUserAndDateRangeBefore(
+        user, startDate, endDate, position.getExpenseDate(), position.getId(),
+        versionService.current(user), PageRequest.of(0, pageSize + 1)), pageSize);
   }
     
   /**
-   * Retrieves expenses from the past week.
+   * Retrieves a page of expenses from the past week.
    *
-   * @return list of expenses from the past week
+   * @param cursor the continuation token from the previous page, or null for the first page
+   * @param size the requested page size, or null for the default
+   * @return the requested page of expenses from the past week
    */
-  public List<ExpenseResponse> getExpensesPastWeek() {
+  public ExpensePageResponse getExpensesPastWeek(String cursor, Integer size) {
     LocalDate endDate = LocalDate.now();
     LocalDate startDate = endDate.minusWeeks(1);
-    return getExpensesByDateRange(startDate, endDate);
+    return getExpensesByDateRange(startDate, endDate, cursor, size);
   }
 
   /**
-   * Retrieves expenses from the past month.
+   * Retrieves a page of expenses from the past month.
    *
-   * @return list of expenses from the past month
+   * @param cursor the continuation token from the previous page, or null for the first page
+   * @param size the requested page size, or null for the default
+   * @return the requested page of expenses from the past month
    */
-  public List<ExpenseResponse> getExpensesPastMonth() {
+  public ExpensePageResponse getExpensesPastMonth(String cursor, Integer size) {
     LocalDate endDate = LocalDate.now();
     LocalDate startDate = endDate.minusMonths(1);
-    return getExpensesByDateRange(startDate, endDate);
+    return getExpensesByDateRange(startDate, endDate, cursor, size);
   }
 
   /**
-   * Retrieves expenses from the past 3 months.
+   * Retrieves a page of expenses from the past 3 months.
    *
-   * @return list of expenses from the past 3 months
+   * @param cursor the continuation token from the previous page, or null for the first page
+   * @param size the requested page size, or null for the default
+   * @return the requested page of expenses from the past 3 months
    */
-  public List<ExpenseResponse> getExpensesPast3Months() {
+  public ExpensePageResponse getExpensesPast3Months(String cursor, Integer size) {
     LocalDate endDate = LocalDate.now();
     LocalDate startDate = endDate.minusMonths(3);
-    return getExpensesByDateRange(startDate, endDate);
+    return getExpensesByDateRange(startDate, endDate, cursor, size);
+  }
+    
+  /**
+   * Summarizes the current user's expenses in a date range. Category and month figures are
+   * served from the monthly rollups for whole months; day groups come from an aggregate query
+   * and week groups are folded from the per-day rows, since ISO week numbering is not portable
+   * across the supported databases. When the column cache is enabled, everything is aggregated
+   * from the user's cached columns instead.
+   *
+   * @param startDate the start date, or null together with endDate for all expenses
+   * @param endDate the end date, or null together with startDate for all expenses
+   * @param bucket the granularity of the per-period breakdown
+   * @return totals overall, per category and per period
+   * @throws InvalidInputException if dates are invalid
+   */
+  @Transactional(readOnly = true)
+  public ExpenseSummaryResponse getSummary(
+      LocalDate startDate, LocalDate endDate, SummaryBucket bucket) {
+    if ((startDate == null) != (endDate == null)) {
+      log.error("Only one of start date {} and end date {} is set", startDate, endDate);
+      throw new InvalidInputException("Start date and end date must be provided together");
+    }
+    if (startDate != null && startDate.isAfter(endDate)) {
+      log.error("Start date {} is after end date {}", startDate, endDate);
+      throw new InvalidInputException("Start date must be before or equal to end date");
+    }
+
+    User user = currentUserProvider.getCurrentUser();
+    LocalDate from = startDate != null ? startDate : SUMMARY_MIN_DATE;
+    LocalDate to = endDate != null ? endDate : SUMMARY_MAX_DATE;
+    log.info("Summarizing expenses for user {} between {} and {} by {}",
+        user.getEmail(), from, to, bucket);
+
+    List<ExpenseAggregate> periods;
+    List<ExpenseAggregate> categories;
+    if (columnCache.isEnabled()) {
+      ExpenseColumns.Summary summary = columnCache.summarize(user, from, to, bucket);
+      periods = summary.getByPeriod();
+      categories = summary.getByCategory();
+    } else {
+      periods = switch (bucket) {
+        case DAY -> expenseRepository.summarizeByDay(user, from, to);
+        case WEEK -> foldIntoWeeks(expenseRepository.summarizeByDay(user, from, to));
+        case MONTH -> rollupService.summarizeByMonth(user, from, to);
+      };
+      categories = rollupService.summarizeByCategory(user, from, to);
+    }
+    ExpenseAggregate totals = categories.stream()
+        .reduce(new ExpenseAggregate(null, null, Money.ZERO, 0L, null, null), ExpenseAggregate::merge);
+
+    return ExpenseSummaryResponse.builder()
+        .startDate(startDate)
+        .endDate(endDate)
+        .bucket(bucket)
+        .totals(SummaryEntry.from(totals))
+        .byCategory(categories.stream()
+            .map(SummaryEntry::from)
+            .collect(Collectors.toList()))
+        .byPeriod(periods.stream()
+            .map(SummaryEntry::from)
+            .collect(Collectors.toList()))
+        .build();
+  }
+
+  /**
+   * Merges date-ordered per-day aggregates into ISO weeks starting on Monday.
+   *
+   * @param days per-day aggregates in ascending date order
+   * @return per-week aggregates in ascending order
+   */
+  private List<ExpenseAggregate> foldIntoWeeks(List<ExpenseAggregate> days) {
+    Map<LocalDate, ExpenseAggregate> weeks = new LinkedHashMap<>();
+    for (ExpenseAggregate day : days) {
+      LocalDate weekStart = day.getPeriodStart()
+          .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      ExpenseAggregate dayInWeek = new ExpenseAggregate(weekStart, day.getTotal(),
+          day.getCount(), day.getMin(), day.getMax());
+      weeks.merge(weekStart, dayInWeek, ExpenseAggregate::merge);
+    }
+    return new ArrayList<>(weeks.values());
   }
     
   /**
@@ -149,21 +302,25 @@ public class ExpenseService {
    */
   @Transactional
   public ExpenseResponse createExpense(ExpenseRequest request) {
-    User user = getCurrentUser();
+    User user = currentUserProvider.getCurrentUser();
     log.info("Creating expense for user: {}", user.getEmail());
 
     Expense expense = Expense.builder()
         .description(request.getDescription())
-        .amount(request.getAmount())
+        .amount(Money.of(request.getAmount()))
         .category(request.getCategory())
         .expenseDate(request.getExpenseDate())
         .user(user)
+        .changeVersion(versionService.bump(user))
         .build();
 
     expense = expenseRepository.save(expense);
+    rollupService.add(user, expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
     log.info("Successfully created expense with ID: {}", expense.getId());
-    
-    return mapToResponse(expense);
+
+    ExpenseResponse response = mapToResponse(expense);
+    publish(user, ExpenseChangeType.CREATED, expense.getChangeVersion(), response);
+    return response;
   }
 
   /**
@@ -177,7 +334,7 @@ public class ExpenseService {
    */
   @Transactional
   public ExpenseResponse updateExpense(Long id, ExpenseRequest request) {
-    User user = getCurrentUser();
+    User user = currentUserProvider.getCurrentUser();
     log.info("Updating expense {} for user: {}", id, user.getEmail());
 
     Expense expense = expenseRepository.findById(id)
@@ -191,15 +348,24 @@ public class ExpenseService {
       throw new UnauthorizedException("Not authorized to update this expense");
     }
 
+    LocalDate previousDate = expense.getExpenseDate();
+    ExpenseCategory previousCategory = expense.getCategory();
+    Money previousAmount = expense.getAmount();
+
     expense.setDescription(request.getDescription());
-    expense.setAmount(request.getAmount());
+    expense.setAmount(Money.of(request.getAmount()));
     expense.setCategory(request.getCategory());
     expense.setExpenseDate(request.getExpenseDate());
+    expense.setChangeVersion(versionService.bump(user));
 
     expense = expenseRepository.save(expense);
+    rollupService.remove(user, previousDate, previousCategory, previousAmount);
+    rollupService.add(user, expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
     log.info("Successfully updated expense with ID: {}", expense.getId());
-    
-    return mapToResponse(expense);
+
+    ExpenseResponse response = mapToResponse(expense);
+    publish(user, ExpenseChangeType.UPDATED, expense.getChangeVersion(), response);
+    return response;
   }
     
   /**
@@ -211,7 +377,7 @@ public class ExpenseService {
    */
   @Transactional
   public void deleteExpense(Long id) {
-    User user = getCurrentUser();
+    User user = currentUserProvider.getCurrentUser();
     log.info("Deleting expense {} for user: {}", id, user.getEmail());
 
     Expense expense = expenseRepository.findById(id)
@@ -225,7 +391,16 @@ public class ExpenseService {
       throw new UnauthorizedException("Not authorized to delete this expense");
     }
 
+    long changeVersion = versionService.bump(user);
     expenseRepository.delete(expense);
+    rollupService.remove(user, expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
+    syncService.recordDeletions(user, List.of(expense.getId()), changeVersion);
+    eventPublisher.publishEvent(ExpenseChangeEvent.builder()
+        .userId(user.getId())
+        .type(ExpenseChangeType.DELETED)
+        .version(changeVersion)
+        .expenseId(expense.getId())
+        .build());
     log.info("Successfully deleted expense with ID: {}", id);
   }
 
@@ -238,7 +413,7 @@ public class ExpenseService {
    * @throws UnauthorizedException if user not authorized
    */
   public ExpenseResponse getExpenseById(Long id) {
-    User user = getCurrentUser();
+    User user = currentUserProvider.getCurrentUser();
     log.info("Fetching expense {} for user: {}", id, user.getEmail());
 
     Expense expense = expenseRepository.findById(id)
@@ -254,4 +429,14 @@ public class ExpenseService {
 
     return mapToResponse(expense);
   }
+
+  private void publish(User user, ExpenseChangeType type, long version, ExpenseResponse expense) {
+    eventPublisher.publishEvent(ExpenseChangeEvent.builder()
+        .userId(user.getId())
+        .type(type)
+        .version(version)
+        .expenseId(expense.getId())
+        .expense(expense)
+        .build());
+  }
 }
@@ -0,0 +1,184 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseChange;
+import com.expensetracker.dto.ExpenseChangesResponse;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.exception.SyncTokenExpiredException;
+import com.expensetracker.model.ExpenseTombstone;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseTombstoneRepository;
+import com.expensetracker.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service answering delta sync requests from the per-user expense version.
+ * Every written expense row carries the version of the transaction that wrote it and every
+ * deletion leaves a tombstone with its version, so the changes since a client's token are two
+ * index range scans, read in keyset pages. Tombstones are kept for the token retention period;
+ * older tokens have to fall back to a full snapshot.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseSyncService {
+
+  private static final String INSERT_TOMBSTONE_SQL = "INSERT INTO expense_tombstones "
+      + "(user_id, expense_id, change_version, deleted_at) VALUES (?, ?, ?, ?)";
+
+  private final ExpenseRepository expenseRepository;
+  private final ExpenseTombstoneRepository tombstoneRepository;
+  private final UserRepository userRepository;
+  private final CurrentUserProvider currentUserProvider;
+  private final JdbcTemplate jdbcTemplate;
+
+  @Value("${expense.sync.tombstone-retention:30d}")
+  private Duration tombstoneRetention;
+
+  @Value("${expense.sync.page-size:500}")
+  private int pageSize;
+
+  /**
+   * Returns the current user's expense changes since a sync token, or a full snapshot when no
+   * token is given. At most one page of changed expenses and one page of deletions is returned
+   * per call; when more remain, the response has hasMore set and its nextToken continues the
+   * same sync. Expenses written after the sync started are left to the next sync.
+   *
+   * @param since the token returned as nextToken by the previous response, or null
+   * @return the changes and the token for the next request
+   * @throws InvalidInputException if the token is malformed
+   * @throws SyncTokenExpiredException if the token is older than the tombstone retention
+   */
+  @Transactional(readOnly = true)
+  public ExpenseChangesResponse getChanges(String since) {
+    User user = currentUserProvider.getCurrentUser();
+    Instant now = Instant.now();
+    long currentVersion = userRepository.findExpenseVersion(user.getId());
+
+    SyncToken token;
+    if (since == null) {
+      log.info("Full expense sync for user {} at version {}", user.getEmail(), currentVersion);
+      token = SyncToken.of(SyncToken.SNAPSHOT, now).upTo(currentVersion);
+    } else {
+      token = SyncToken.decode(since);
+      if (token.getIssuedAt().isBefore(now.minus(tombstoneRetention))
+          || token.getUpToVersion() > currentVersion) {
+        log.warn("Rejecting stale sync token of user {} at version {}", user.getEmail(),
+            token.getVersion());
+        throw new SyncTokenExpiredException("Sync token expired, fetch a full snapshot");
+      }
+      if (!token.isContinuation()) {
+        token = token.upTo(currentVersion);
+      }
+    }
+    return nextPage(user, token, now);
+  }
+
+  private ExpenseChangesResponse nextPage(User user, SyncToken token, Instant now) {
+    ExpenseChangesResponse.ExpenseChangesResponseBuilder response =
+        ExpenseChangesResponse.builder()
+            .fullSnapshot(token.isFullSnapshot())
+            .changed(List.of())
+            .deleted(List.of());
+
+    if (!token.isInDeletions()) {
+      List<ExpenseChange> changes = expenseRepository.findChangedAfter(user,
+          token.getAfterVersion(), token.getAfterId(), token.getUpToVersion(),
+          PageRequest.of(0, pageSize + 1));
+      if (changes.size() > pageSize) {
+        ExpenseChange last = changes.get(pageSize - 1);
+        return response
+            .changed(toResponses(changes.subList(0, pageSize)))
+            .hasMore(true)
+            .nextToken(token.afterChange(last.getChangeVersion(), last.getId()).encode())
+            .build();
+      }
+      response.changed(toResponses(changes));
+      token = token.startDeletions();
+    }
+
+    // A full snapshot replaces everything the client holds, so it never reports deletions
+    if (!token.isFullSnapshot()) {
+      List<ExpenseTombstone> tombstones = tombstoneRepository.findDeletedAfter(user,
+          token.getAfterVersion(), token.getAfterId(), token.getUpToVersion(),
+          PageRequest.of(0, pageSize + 1));
+      if (tombstones.size() > pageSize) {
+        ExpenseTombstone last = tombstones.get(pageSize - 1);
+        return response
+            .deleted(toExpenseIds(tombstones.subList(0, pageSize)))
+            .hasMore(true)
+            .nextToken(token.afterDeletion(last.getChangeVersion(), last.getId()).encode())
+            .build();
+      }
+      response.deleted(toExpenseIds(tombstones));
+    }
+
+    log.info("Sync of user {} from version {} complete at version {}", user.getEmail(),
+        token.getVersion(), token.getUpToVersion());
+    return response
+        .hasMore(false)
+        .nextToken(SyncToken.of(token.getUpToVersion(), now).encode())
+        .build();
+  }
+
+  private static List<ExpenseResponse> toResponses(List<ExpenseChange> changes) {
+    List<ExpenseResponse> responses = new ArrayList<>(changes.size());
+    for (ExpenseChange change : changes) {
+      responses.add(change.toResponse());
+    }
+    return responses;
+  }
+
+  private static List<Long> toExpenseIds(List<ExpenseTombstone> tombstones) {
+    List<Long> expenseIds = new ArrayList<>(tombstones.size());
+    for (ExpenseTombstone tombstone : tombstones) {
+      expenseIds.add(tombstone.getExpenseId());
+    }
+    return expenseIds;
+  }
+
+  /**
+   * Records tombstones for deleted expenses with a single JDBC batch.
+   *
+   * @param user the expense owner
+   * @param expenseIds the IDs of the deleted expenses
+   * @param changeVersion the version of the deleting transaction
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordDeletions(User user, Collection<Long> expenseIds, long changeVersion) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(INSERT_TOMBSTONE_SQL, expenseIds.stream()
+        .map(expenseId -> new Object[] {user.getId(), expenseId, changeVersion, now})
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Drops tombstones older than the retention period; tokens that could still need them are
+   * rejected as expired.
+   */
+  @Scheduled(cron = "${expense.sync.purge-cron:0 0 4 * * *}")
+  @Transactional
+  public void purgeTombstones() {
+    int purged = tombstoneRepository.deleteByDeletedAtBefore(
+        LocalDateTime.now().minus(tombstoneRetention));
+    log.info("Purged {} expense tombstones", purged);
+  }
+}
@@ -0,0 +1,99 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.User;
+import com.expensetracker.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Service maintaining the per-user expense version used for conditional GETs.
+ * Every expense write bumps the version in the same transaction, so an unchanged version
+ * means an unchanged set of expenses and reads can be answered with 304 after a single
+ * primary-key lookup.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseVersionService {
+
+  private final UserRepository userRepository;
+  private final CurrentUserProvider currentUserProvider;
+
+  /**
+   * Marks the expenses of a user as changed. The row lock taken on the user serializes
+   * concurrent writers, so versions become visible to readers in increasing order.
+   *
+   * @param user the expense owner
+   * @return the new version, to be stamped on every row written in this transaction
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public long bump(User user) {
+    userRepository.incrementExpenseVersion(user.getId());
+    return userRepository.findExpenseVersion(user.getId());
+  }
+
+  /**
+   * Marks the expenses of a user as changed ahead of rows written through JDBC. Unlike
+   * {@link #bump(User)}, it also invalidates the cached expense queries, since Hibernate does
+   * not see those rows.
+   *
+   * @param user the expense owner
+   * @return the new version, to be stamped on every row written in this transaction
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public long bumpForBulkWrite(User user) {
+    userRepository.incrementExpenseVersionForBulkWrite(user.getId());
+    return userRepository.findExpenseVersion(user.getId());
+  }
+
+  /**
+   * Reads the current expense version of a user within the caller's transaction, so it
+   * matches the rows the transaction reads next. Cached expense queries take it as a
+   * parameter: a result is only reused until any instance writes an expense of the user.
+   *
+   * @param user the expense owner
+   * @return the current version
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public long current(User user) {
+    return userRepository.findExpenseVersion(user.getId());
+  }
+
+  /**
+   * Builds the ETag of a single-expense read for the current user.
+   *
+   * @param representation the media type suffix of the response body, or null for JSON
+   * @return the entity tag
+   */
+  @Transactional(readOnly = true)
+  public String currentEtag(String representation) {
+    User user = currentUserProvider.getCurrentUser();
+    return etag(user.getId() + "-" + userRepository.findExpenseVersion(user.getId()),
+        representation);
+  }
+
+  /**
+   * Builds the ETag of a list or summary read for the current user. It also carries today's
+   * date, since relative filters such as "past week" shift without any write.
+   *
+   * @param representation the media type suffix of the response body, or null for JSON
+   * @return the entity tag
+   */
+  @Transactional(readOnly = true)
+  public String currentDatedEtag(String representation) {
+    User user = currentUserProvider.getCurrentUser();
+    return etag(user.getId() + "-" + userRepository.findExpenseVersion(user.getId())
+        + "-" + LocalDate.now(), representation);
+  }
+
+  /**
+   * Weak tag, since the body may also be gzip-encoded; each media type gets its own tag, so a
+   * cache can never revalidate a JSON body with the validator of a CBOR one or vice versa.
+   */
+  private static String etag(String version, String representation) {
+    return "W/\"" + version + (representation == null ? "" : "-" + representation) + "\"";
+  }
+}
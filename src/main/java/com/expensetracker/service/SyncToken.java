@@ -0,0 +1,150 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.InvalidInputException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Delta sync position: the expense version a client has seen and when the token was issued.
+ * A sync that does not fit into one response also carries a continuation: the version it
+ * pages up to and the (change version, id) of the last expense or tombstone already returned.
+ * Serialized as an opaque URL-safe token so clients never depend on its layout.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class SyncToken {
+
+  /** Base version of a full snapshot: every expense has a greater change version. */
+  static final long SNAPSHOT = -1;
+
+  private static final char SEPARATOR = ':';
+  private static final char CHANGES = 'c';
+  private static final char DELETIONS = 'd';
+
+  private final long version;
+  private final Instant issuedAt;
+  private final long upToVersion;
+  private final boolean inDeletions;
+  private final long afterVersion;
+  private final long afterId;
+
+  /**
+   * Token for a client that has seen every change up to the given version.
+   *
+   * @param version the expense version included in the response
+   * @param issuedAt the time the response was produced
+   * @return the token
+   */
+  static SyncToken of(long version, Instant issuedAt) {
+    return new SyncToken(version, issuedAt, version, false, version, Long.MAX_VALUE);
+  }
+
+  /**
+   * Decodes a token produced by {@link #encode()}.
+   *
+   * @param token the opaque sync token
+   * @return the decoded token
+   * @throws InvalidInputException if the token is malformed
+   */
+  static SyncToken decode(String token) {
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+          .split(String.valueOf(SEPARATOR), -1);
+      long version = Long.parseLong(parts[0]);
+      Instant issuedAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+      if (parts.length == 2) {
+        return of(version, issuedAt);
+      }
+      if (parts.length != 6 || parts[3].length() != 1
+          || (parts[3].charAt(0) != CHANGES && parts[3].charAt(0) != DELETIONS)) {
+        throw new InvalidInputException("Invalid sync token");
+      }
+      return new SyncToken(version, issuedAt, Long.parseLong(parts[2]),
+          parts[3].charAt(0) == DELETIONS, Long.parseLong(parts[4]), Long.parseLong(parts[5]));
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      throw new InvalidInputException("Invalid sync token", e);
+    }
+  }
+
+  /**
+   * Whether this token continues a sync whose previous response had more changes.
+   *
+   * @return true for a continuation
+   */
+  boolean isContinuation() {
+    return upToVersion != version;
+  }
+
+  /**
+   * Whether this token belongs to a full snapshot rather than a delta.
+   *
+   * @return true for a full snapshot
+   */
+  boolean isFullSnapshot() {
+    return version == SNAPSHOT;
+  }
+
+  /**
+   * Starts paging through the changes between this token's version and the given one.
+   *
+   * @param upToVersion the current expense version, included in the sync
+   * @return the continuation positioned before the first changed expense
+   */
+  SyncToken upTo(long upToVersion) {
+    return new SyncToken(version, issuedAt, upToVersion, false, version, Long.MAX_VALUE);
+  }
+
+  /**
+   * Continues after the last changed expense returned.
+   *
+   * @param changeVersion the change version of that expense
+   * @param id the expense ID
+   * @return the continuation
+   */
+  SyncToken afterChange(long changeVersion, long id) {
+    return new SyncToken(version, issuedAt, upToVersion, false, changeVersion, id);
+  }
+
+  /**
+   * Continues with the deletions once every changed expense was returned.
+   *
+   * @return the continuation positioned before the first tombstone
+   */
+  SyncToken startDeletions() {
+    return new SyncToken(version, issuedAt, upToVersion, true, version, Long.MAX_VALUE);
+  }
+
+  /**
+   * Continues after the last tombstone returned.
+   *
+   * @param changeVersion the change version of the tombstone
+   * @param id the tombstone ID
+   * @return the continuation
+   */
+  SyncToken afterDeletion(long changeVersion, long id) {
+    return new SyncToken(version, issuedAt, upToVersion, true, changeVersion, id);
+  }
+
+  /**
+   * Encodes this token as an opaque URL-safe string.
+   *
+   * @return the token
+   */
+  String encode() {
+    StringBuilder raw = new StringBuilder()
+        .append(version).append(SEPARATOR).append(issuedAt.getEpochSecond());
+    if (isContinuation()) {
+      raw.append(SEPARATOR).append(upToVersion)
+          .append(SEPARATOR).append(inDeletions ? DELETIONS : CHANGES)
+          .append(SEPARATOR).append(afterVersion)
+          .append(SEPARATOR).append(afterId);
+    }
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -12,6 +12,21 @@ let currentEditId = null;
 /** @type {?bootstrap.Modal} Bootstrap modal instance for editing expenses. */
 let editModal = null;
 
+/** @type {string} Query string of the currently displayed expense list. */
+let currentQuery = '';
+
+/** @type {?string} Cursor of the next expense page, null when all pages are loaded. */
+let nextCursor = null;
+
+/** @type {!Array<!Object>} Expenses loaded so far for the current query. */
+let loadedExpenses = [];
+
+/** @const {number} Delay before reopening a closed change stream, in milliseconds. */
+const STREAM_RETRY_DELAY_MS = 5000;
+
+/** @type {?number} Pending refresh scheduled by the change stream. */
+let refreshTimer = null;
+
 // Check authentication
 if (!localStorage.getItem('token')) {
   window.location.href = 'index.html';
@@ -26,6 +41,7 @@ document.addEventListener('DOMContentLoaded', () => {
   loadExpenses();
   setTodayDate();
   setupEventListeners();
+  watchExpenseChanges();
 });
 
 /**
@@ -54,6 +70,7 @@ function setupEventListeners() {
   document.getElementById('expenseForm').addEventListener('submit', handleAddExpense);
   document.getElementById('saveEditBtn').addEventListener('click', handleEditExpense);
   document.getElementById('customFilterBtn').addEventListener('click', handleCustomFilter);
+  document.getElementById('loadMoreBtn').addEventListener('click', loadMoreExpenses);
 
   document.querySelectorAll('.filter-btn').forEach((btn) => {
     btn.addEventListener('click', (e) => {
@@ -63,6 +80,109 @@ function setupEventListeners() {
   });
 }
 
+/**
+ * Fetches JSON from an authenticated API endpoint.
+ * @param {string} path - Path relative to the API base URL.
+ * @return {!Promise<!Response>}
+ */
+function fetchApi(path) {
+  return fetch(`${API_BASE_URL}${path}`, {
+    headers: {
+      'Authorization': `Bearer ${localStorage.getItem('token')}`,
+    },
+  });
+}
+
+/**
+ * Listens to the server's expense change stream and refreshes the list when expenses change,
+ * e.g. from another tab or device. EventSource cannot send the Authorization header, so the
+ * stream is read with fetch; it is reopened after a delay whenever it ends.
+ * @return {!Promise<void>}
+ */
+async function watchExpenseChanges() {
+  try {
+    const response = await fetchApi('/expenses/stream');
+    if (response.status === 401) {
+      logout();
+      return;
+    }
+    if (response.ok) {
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const {value, done} = await reader.read();
+        if (done) {
+          break;
+        }
+        buffer += value;
+        const events = buffer.split('\n\n');
+        buffer = events.pop();
+        if (events.some((event) => /^data:/m.test(event))) {
+          scheduleRefresh();
+        }
+      }
+    }
+  } catch (error) {
+    console.error('Expense change stream closed:', error);
+  }
+  // Changes made while disconnected are picked up by the refresh.
+  scheduleRefresh();
+  setTimeout(watchExpenseChanges, STREAM_RETRY_DELAY_MS);
+}
+
+/**
+ * Reloads the current expense query once a burst of change events has settled.
+ */
+function scheduleRefresh() {
+  clearTimeout(refreshTimer);
+  refreshTimer = setTimeout(() => loadExpenseQuery(currentQuery), 300);
+}
+
+/**
+ * Fetches one page of an expense query.
+ * @param {string} query - Query string without the leading '?', may be empty.
+ * @param {?string} cursor - Cursor of the page to fetch, null for the first page.
+ * @return {!Promise<!Response>}
+ */
+function fetchExpensePage(query, cursor) {
+  const params = new URLSearchParams(query);
+  if (cursor) {
+    params.set('cursor', cursor);
+  }
+  return fetchApi(`/expenses?${params}`);
+}
+
+/**
+ * Loads the first page of expenses and the summary total for a query.
+ * @param {string} query - Query string without the leading '?', may be empty.
+ * @return {!Promise<boolean>} Whether both requests succeeded.
+ */
+async function loadExpenseQuery(query) {
+  const [pageResponse, summaryResponse] = await Promise.all([
+    fetchExpensePage(query, null),
+    fetchApi(`/expenses/summary?${query}`),
+  ]);
+
+  if (pageResponse.status === 401 || summaryResponse.status === 401) {
+    logout();
+    return true;
+  }
+  if (!pageResponse.ok || !summaryResponse.ok) {
+    return false;
+  }
+
+  const page = await pageResponse.json();
+  const summary = await summaryResponse.json();
+
+  currentQuery = query;
+  loadedExpenses = page.items;
+  nextCursor = page.hasMore ? page.nextCursor : null;
+  displayExpenses(loadedExpenses);
+  document.getElementById('totalValue').textContent =
+      parseFloat(summary.totals.total).toFixed(2);
+  return true;
+}
+
 /**
  * Loads expenses from the server with optional filtering.
  * @param {string} filter - Filter type ('all', 'week', 'month', '3months').
@@ -70,21 +190,32 @@ function setupEventListeners() {
  */
 async function loadExpenses(filter = 'all') {
   try {
-    let url = `${API_BASE_URL}/expenses`;
-
-    if (filter !== 'all') {
-      url += `?filter=${filter}`;
+    const query = filter !== 'all' ? `filter=${filter}` : '';
+    if (!await loadExpenseQuery(query)) {
+      showAlert('Failed to load expenses', 'danger');
     }
+  } catch (error) {
+    showAlert('An error occurred while loading expenses', 'danger');
+  }
+}
 
-    const response = await fetch(url, {
-      headers: {
-        'Authorization': `Bearer ${localStorage.getItem('token')}`,
-      },
-    });
+/**
+ * Appends the next page of the current query to the table.
+ * @return {!Promise<void>}
+ */
+async function loadMoreExpenses() {
+  if (!nextCursor) {
+    return;
+  }
+
+  try {
+    const response = await fetchExpensePage(currentQuery, nextCursor);
 
     if (response.ok) {
-      const expenses = await response.json();
-      displayExpenses(expenses);
+      const page = await response.json();
+      loadedExpenses = loadedExpenses.concat(page.items);
+      nextCursor = page.hasMore ? page.nextCursor : null;
+      displayExpenses(loadedExpenses);
     } else if (response.status === 401) {
       logout();
     } else {
@@ -109,18 +240,7 @@ async function handleCustomFilter() {
   }
 
   try {
-    const url = `${API_BASE_URL}/expenses?startDate=${startDate}&endDate=${endDate}`;
-
-    const response = await fetch(url, {
-      headers: {
-        'Authorization': `Bearer ${localStorage.getItem('token')}`,
-      },
-    });
-
-    if (response.ok) {
-      const expenses = await response.json();
-      displayExpenses(expenses);
-    } else {
+    if (!await loadExpenseQuery(`startDate=${startDate}&endDate=${endDate}`)) {
       showAlert('Failed to filter expenses', 'danger');
     }
   } catch (error) {
@@ -129,21 +249,20 @@ async function handleCustomFilter() {
 }
 
 /**
- * Displays expenses in the table.
+ * Displays expenses in the table. The total is taken from the summary endpoint,
+ * since the table may only hold the first pages of the query.
  * @param {!Array<!Object>} expenses - Array of expense objects.
  */
 function displayExpenses(expenses) {
   const tbody = document.getElementById('expensesTableBody');
+  document.getElementById('loadMoreBtn').classList.toggle('d-none', !nextCursor);
 
   if (expenses.length === 0) {
     tbody.innerHTML = '<tr><td colspan="5" class="text-center">No expenses found</td></tr>';
-    document.getElementById('totalValue').textContent = '0.00';
     return;
   }
 
-  let total = 0;
   tbody.innerHTML = expenses.map((expense) => {
-    total += parseFloat(expense.amount);
     return `
       <tr>
         <td>${formatDate(expense.expenseDate)}</td>
@@ -161,8 +280,6 @@ function displayExpenses(expenses) {
       </tr>
     `;
   }).join('');
-
-  document.getElementById('totalValue').textContent = total.toFixed(2);
 }
 
 /**
@@ -0,0 +1,56 @@
+package com.expensetracker.config;
+
+import com.expensetracker.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceMetricsTest {
+
+  private static final String SECRET = Base64.getEncoder()
+      .encodeToString("test-secret-test-secret-test-secret-0123456789".getBytes());
+
+  private final User user = User.builder()
+      .id(1L)
+      .email("metrics@example.com")
+      .password("unused")
+      .firstName("Metrics")
+      .lastName("Test")
+      .build();
+
+  @Test
+  void tagsVerificationByCacheOutcome() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    JwtService jwtService = new JwtService(SECRET, TimeUnit.HOURS.toMillis(1), true, 100,
+        meterRegistry);
+
+    String token = jwtService.generateToken(user);
+    jwtService.verify(token);
+    jwtService.verify(token);
+    jwtService.verify(token);
+
+    assertThat(meterRegistry.get("jwt.generate").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("jwt.verify").tag("cache", "miss").timer().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("jwt.verify").tag("cache", "hit").timer().count())
+        .isEqualTo(2);
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+        .tag("result", "hit").functionCounter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void tagsVerificationAsDisabledWithoutCache() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    JwtService jwtService = new JwtService(SECRET, TimeUnit.HOURS.toMillis(1), false, 100,
+        meterRegistry);
+
+    jwtService.verify(jwtService.generateToken(user));
+
+    assertThat(meterRegistry.get("jwt.verify").tag("cache", "disabled").timer().count())
+        .isEqualTo(1);
+  }
+}
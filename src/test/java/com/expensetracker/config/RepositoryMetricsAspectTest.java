@@ -0,0 +1,64 @@
+package com.expensetracker.config;
+
+import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RepositoryMetricsAspectTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private RepositoryMetricsAspect aspect;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new RepositoryMetricsAspect(meterRegistry);
+    }
+    
+    @Test
+    void recordsRowsPerQueryMethod() throws Exception {
+        JoinPoint findAll = joinPoint(UserRepository.class.getMethod("findAll"));
+        aspect.recordRows(findAll, List.of("a", "b", "c"));
+        aspect.recordRows(findAll, List.of());
+        aspect.recordRows(joinPoint(UserRepository.class.getMethod("findByEmail", String.class)),
+                Optional.of("a"));
+        
+        DistributionSummary findAllRows = meterRegistry.get("repository.rows")
+                .tag("method", "findAll")
+                .summary();
+        assertThat(findAllRows.count()).isEqualTo(2);
+        assertThat(findAllRows.totalAmount()).isEqualTo(3);
+        DistributionSummary findByEmailRows = meterRegistry.get("repository.rows")
+                .tags("repository", "UserRepository", "method", "findByEmail")
+                .summary();
+        assertThat(findByEmailRows.count()).isEqualTo(1);
+        assertThat(findByEmailRows.totalAmount()).isEqualTo(1);
+    }
+    
+    @Test
+    void ignoresResultsWithoutRows() throws Exception {
+        aspect.recordRows(joinPoint(UserRepository.class.getMethod("existsByEmail", String.class)),
+                true);
+        
+        assertThat(meterRegistry.find("repository.rows").summaries()).isEmpty();
+    }
+    
+    private static JoinPoint joinPoint(java.lang.reflect.Method method) {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        JoinPoint joinPoint = mock(JoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+}
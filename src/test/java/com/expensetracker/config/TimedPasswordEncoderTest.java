@@ -0,0 +1,25 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimedPasswordEncoderTest {
+    
+    @Test
+    @SuppressWarnings("deprecation")
+    void timesEncodingAndVerification() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TimedPasswordEncoder encoder =
+                new TimedPasswordEncoder(NoOpPasswordEncoder.getInstance(), meterRegistry);
+        
+        String encoded = encoder.encode("secret");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(encoder.matches("wrong", encoded)).isFalse();
+        
+        assertThat(meterRegistry.get("password.encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.matches").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,55 @@
+package com.expensetracker.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, -1, 5, -5, 99, -99, 100, -100, 1_250, -1_250,
+            Long.MIN_VALUE, Long.MAX_VALUE})
+    void toStringMatchesPlainDecimal(long cents) {
+        Money money = Money.ofCents(cents);
+
+        assertThat(money.toString()).isEqualTo(money.toBigDecimal().toPlainString());
+        assertThat(Money.parse(money.toString())).isEqualTo(money);
+    }
+
+    @Test
+    void formatWritesAtOffset() {
+        char[] buffer = new char[Money.MAX_LENGTH + 3];
+        int length = Money.ofCents(Long.MIN_VALUE).format(buffer, 3);
+
+        assertThat(length).isEqualTo(Money.MAX_LENGTH);
+        assertThat(new String(buffer, 3, length)).isEqualTo("-92233720368547758.08");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "5, 2", "-5, 2", "5, -2", "-5, -2",
+            "7, 3", "-7, 3", "8, 3", "-8, 3",
+            "1, 3", "-1, 3", "-1, 2", "0, 7",
+            "-1000, 7", "-999, 1000", "-500, 1000", "-499, 1000"
+    })
+    void dividedByRoundsHalfUp(long cents, long divisor) {
+        long expected = BigDecimal.valueOf(cents)
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+
+        assertThat(Money.ofCents(cents).dividedBy(divisor).getCents()).isEqualTo(expected);
+    }
+
+    @Test
+    void ofRoundsHalfUpToCents() {
+        assertThat(Money.of(new BigDecimal("0.005"))).isEqualTo(Money.ofCents(1));
+        assertThat(Money.of(new BigDecimal("-0.005"))).isEqualTo(Money.ofCents(-1));
+        assertThat(Money.of(new BigDecimal("-0.004"))).isEqualTo(Money.ZERO);
+    }
+}
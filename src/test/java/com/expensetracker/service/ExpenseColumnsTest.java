@@ -0,0 +1,195 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseAggregate;
+import com.expensetracker.dto.ExpenseResponse;
+import com.expensetracker.dto.SummaryBucket;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpenseColumnsTest {
+
+  private static final LocalDate FIRST_DAY = LocalDate.of(2023, 11, 20);
+  private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+  @Test
+  void summarizeMatchesNaiveFold() {
+    List<ExpenseResponse> rows = generate(500, 120);
+    ExpenseColumns columns = load(rows);
+
+    LocalDate lastDay = FIRST_DAY.plusDays(119);
+    List<LocalDate[]> ranges = List.of(
+        new LocalDate[] {FIRST_DAY, lastDay},
+        new LocalDate[] {FIRST_DAY.minusYears(1), lastDay.plusYears(1)},
+        // Across the turn of the year and several month and week boundaries
+        new LocalDate[] {LocalDate.of(2023, 12, 27), LocalDate.of(2024, 2, 3)},
+        new LocalDate[] {FIRST_DAY.plusDays(17), FIRST_DAY.plusDays(17)},
+        new LocalDate[] {FIRST_DAY.minusDays(30), FIRST_DAY.minusDays(1)},
+        new LocalDate[] {lastDay.plusDays(1), lastDay.plusDays(60)},
+        new LocalDate[] {FIRST_DAY.minusDays(3), FIRST_DAY},
+        new LocalDate[] {lastDay, lastDay.plusDays(3)});
+    for (LocalDate[] range : ranges) {
+      for (SummaryBucket bucket : SummaryBucket.values()) {
+        assertSummary(columns, rows, range[0], range[1], bucket);
+      }
+    }
+  }
+
+  @Test
+  void emptyColumnsSummarizeToNothing() {
+    ExpenseColumns columns = new ExpenseColumns(0, 0);
+    columns.finishLoad();
+
+    ExpenseColumns.Summary summary =
+        columns.summarize(FIRST_DAY, FIRST_DAY.plusDays(30), SummaryBucket.DAY);
+    assertThat(summary.getByCategory()).isEmpty();
+    assertThat(summary.getByPeriod()).isEmpty();
+  }
+
+  @Test
+  void sameDayTiesAreAllCounted() {
+    List<ExpenseResponse> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(expense(i + 1, FIRST_DAY, 100 * (i + 1), CATEGORIES[i % 2]));
+    }
+    rows.add(expense(11, FIRST_DAY.minusDays(1), 5, CATEGORIES[0]));
+    rows.add(expense(12, FIRST_DAY.plusDays(1), 7, CATEGORIES[0]));
+    ExpenseColumns columns = load(rows);
+
+    ExpenseColumns.Summary summary = columns.summarize(FIRST_DAY, FIRST_DAY, SummaryBucket.DAY);
+    assertThat(summary.getByPeriod()).hasSize(1);
+    assertThat(summary.getByPeriod().get(0).getCount()).isEqualTo(10);
+    assertThat(summary.getByPeriod().get(0).getTotal()).isEqualTo(Money.ofCents(5_500));
+    assertSummary(columns, rows, FIRST_DAY, FIRST_DAY, SummaryBucket.DAY);
+  }
+
+  @Test
+  void putAndRemoveKeepRowsInDateOrder() {
+    List<ExpenseResponse> rows = new ArrayList<>(generate(100, 40));
+    ExpenseColumns columns = load(rows);
+
+    // Moves an expense to another day, removes one, puts it back and adds new rows at both ends
+    ExpenseResponse moved = expense(rows.get(10).getId(), FIRST_DAY.plusDays(39), 1_234,
+        CATEGORIES[3]);
+    rows.set(10, moved);
+    columns.put(moved);
+
+    ExpenseResponse removed = rows.remove(20);
+    columns.remove(removed.getId());
+    assertSummary(columns, rows, FIRST_DAY, FIRST_DAY.plusDays(39), SummaryBucket.DAY);
+
+    rows.add(removed);
+    columns.put(removed);
+    ExpenseResponse earliest = expense(1_001, FIRST_DAY.minusDays(5), 77, CATEGORIES[1]);
+    ExpenseResponse latest = expense(1_002, FIRST_DAY.plusDays(60), 88, CATEGORIES[2]);
+    rows.add(earliest);
+    rows.add(latest);
+    columns.put(earliest);
+    columns.put(latest);
+    columns.remove(9_999);
+
+    assertThat(columns.size()).isEqualTo(rows.size());
+    for (SummaryBucket bucket : SummaryBucket.values()) {
+      assertSummary(columns, rows, FIRST_DAY.minusDays(10), FIRST_DAY.plusDays(70), bucket);
+      assertSummary(columns, rows, FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(25), bucket);
+    }
+  }
+
+  @Test
+  void putGrowsBeyondInitialCapacity() {
+    ExpenseColumns columns = new ExpenseColumns(0, 0);
+    columns.finishLoad();
+    List<ExpenseResponse> rows = generate(300, 30);
+    rows.forEach(columns::put);
+
+    assertThat(columns.size()).isEqualTo(300);
+    assertThat(columns.retainedBytes())
+        .isGreaterThanOrEqualTo(300L * ExpenseColumns.BYTES_PER_ROW);
+    assertSummary(columns, rows, FIRST_DAY, FIRST_DAY.plusDays(29), SummaryBucket.WEEK);
+  }
+
+  /** Loads rows the way the cache does: descending (date, id), then reversed. */
+  private static ExpenseColumns load(List<ExpenseResponse> rows) {
+    ExpenseColumns columns = new ExpenseColumns(1, rows.size());
+    rows.stream()
+        .sorted(Comparator.comparing(ExpenseResponse::getExpenseDate)
+            .thenComparing(ExpenseResponse::getId)
+            .reversed())
+        .forEach(columns::append);
+    columns.finishLoad();
+    return columns;
+  }
+
+  private static List<ExpenseResponse> generate(int count, int days) {
+    Random random = new Random(42);
+    List<ExpenseResponse> rows = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      rows.add(expense(i + 1, FIRST_DAY.plusDays(random.nextInt(days)),
+          1 + random.nextInt(100_000), CATEGORIES[random.nextInt(CATEGORIES.length)]));
+    }
+    return rows;
+  }
+
+  private static ExpenseResponse expense(long id, LocalDate date, long cents,
+      ExpenseCategory category) {
+    return ExpenseResponse.builder()
+        .id(id)
+        .description("Expense " + id)
+        .amount(Money.ofCents(cents))
+        .category(category)
+        .expenseDate(date)
+        .build();
+  }
+
+  private static void assertSummary(ExpenseColumns columns, List<ExpenseResponse> rows,
+      LocalDate startDate, LocalDate endDate, SummaryBucket bucket) {
+    List<ExpenseResponse> inRange = rows.stream()
+        .filter(row -> !row.getExpenseDate().isBefore(startDate)
+            && !row.getExpenseDate().isAfter(endDate))
+        .toList();
+    ExpenseColumns.Summary summary = columns.summarize(startDate, endDate, bucket);
+
+    String range = startDate + ".." + endDate + " by " + bucket;
+    assertThat(summary.getByCategory()).as("categories of " + range)
+        .isEqualTo(fold(inRange, ExpenseResponse::getCategory,
+            (category, aggregate) -> aggregate.rekey(category, null)));
+    assertThat(summary.getByPeriod()).as("periods of " + range)
+        .isEqualTo(fold(inRange, row -> periodStart(row.getExpenseDate(), bucket),
+            (periodStart, aggregate) -> aggregate.rekey(null, periodStart)));
+  }
+
+  /** Groups rows by key in ascending key order, one row at a time. */
+  private static <K> List<ExpenseAggregate> fold(List<ExpenseResponse> rows,
+      Function<ExpenseResponse, K> key, BiFunction<K, ExpenseAggregate, ExpenseAggregate> rekey) {
+    Map<K, ExpenseAggregate> groups = new TreeMap<>();
+    for (ExpenseResponse row : rows) {
+      ExpenseAggregate single = new ExpenseAggregate(null, null, row.getAmount(), 1L,
+          row.getAmount(), row.getAmount());
+      groups.merge(key.apply(row), single, ExpenseAggregate::merge);
+    }
+    List<ExpenseAggregate> folded = new ArrayList<>();
+    groups.forEach((group, aggregate) -> folded.add(rekey.apply(group, aggregate)));
+    return folded;
+  }
+
+  private static LocalDate periodStart(LocalDate date, SummaryBucket bucket) {
+    return switch (bucket) {
+      case DAY -> date;
+      case WEEK -> date.with(DayOfWeek.MONDAY);
+      case MONTH -> date.withDayOfMonth(1);
+    };
+  }
+}
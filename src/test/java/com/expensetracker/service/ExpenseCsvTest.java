@@ -0,0 +1,95 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpenseCsvTest {
+
+  @Test
+  void readsPlainRecords() throws IOException {
+    assertThat(readAll("a,b,c\n1,2,3\n"))
+        .containsExactly(List.of("a", "b", "c"), List.of("1", "2", "3"));
+  }
+
+  @Test
+  void readsQuotedSeparatorsQuotesAndLineBreaks() throws IOException {
+    assertThat(readAll("1,\"Coffee, large\",\"say \"\"hi\"\"\",\"two\nlines\"\n"))
+        .containsExactly(List.of("1", "Coffee, large", "say \"hi\"", "two\nlines"));
+  }
+
+  @Test
+  void readsCrlfAndBareCrLineEndings() throws IOException {
+    assertThat(readAll("a,b\r\n1,2\r3,4\r\n"))
+        .containsExactly(List.of("a", "b"), List.of("1", "2"), List.of("3", "4"));
+  }
+
+  @Test
+  void keepsCrlfInsideQuotedFields() throws IOException {
+    assertThat(readAll("\"one\r\ntwo\",x\r\n"))
+        .containsExactly(List.of("one\r\ntwo", "x"));
+  }
+
+  @Test
+  void readsLastRecordWithoutLineBreak() throws IOException {
+    assertThat(readAll("a,b\n1,\"2\"")).containsExactly(List.of("a", "b"), List.of("1", "2"));
+  }
+
+  @Test
+  void keepsEmptyFieldsAndSkipsBlankLines() throws IOException {
+    assertThat(readAll("\n,,\r\n\r\n\"\",x\n\n"))
+        .containsExactly(List.of("", "", ""), List.of("", "x"));
+  }
+
+  @Test
+  void returnsNullAtEndOfInput() throws IOException {
+    assertThat(ExpenseCsv.readRecord(reader(""))).isNull();
+  }
+
+  @Test
+  void rejectsUnterminatedQuotedField() {
+    assertThatThrownBy(() -> readAll("a,b\n1,\"never closed\n"))
+        .isInstanceOf(InvalidInputException.class)
+        .hasMessageContaining("unterminated quoted field");
+  }
+
+  @Test
+  void writtenFieldsReadBackUnchanged() throws IOException {
+    List<String> values = List.of("plain", "comma, inside", "quote \" inside", "line\nbreak",
+        "carriage\r\nreturn", "", "\"\"");
+    StringWriter out = new StringWriter();
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      ExpenseCsv.writeField(out, values.get(i));
+    }
+    out.write('\n');
+
+    assertThat(out.toString()).startsWith("plain,\"comma, inside\",\"quote \"\" inside\",");
+    assertThat(readAll(out.toString())).containsExactly(values);
+  }
+
+  private static List<List<String>> readAll(String csv) throws IOException {
+    BufferedReader reader = reader(csv);
+    List<List<String>> records = new ArrayList<>();
+    List<String> record;
+    while ((record = ExpenseCsv.readRecord(reader)) != null) {
+      records.add(record);
+    }
+    return records;
+  }
+
+  private static BufferedReader reader(String csv) {
+    return new BufferedReader(new StringReader(csv));
+  }
+}
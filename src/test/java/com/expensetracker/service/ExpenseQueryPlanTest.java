@@ -0,0 +1,262 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseFilter;
+import com.expensetracker.dto.ExpensePageResponse;
+import com.expensetracker.dto.ExpenseSortField;
+import com.expensetracker.model.ExpenseCategory;
+import com.expensetracker.model.Money;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies on MySQL that every filter and sort combination of the multi-criteria expense query
+ * is answered from one of the user-led indexes, and in index order where the repository
+ * documents it. The statements are taken from the performance schema with their bound values
+ * and explained on the same connection.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        // Client-side prepared statements reach the server, and its history, with their values
+        "spring.datasource.hikari.data-source-properties.useServerPrepStmts=false",
+        "jwt.secret=dGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtdGVzdC1zZWNyZXQtMDEyMzQ1Njc4OQ==",
+        "jwt.expiration=3600000"
+    })
+@Testcontainers(disabledWithoutDocker = true)
+class ExpenseQueryPlanTest {
+
+  private static final int ROWS_PER_USER = 5_000;
+  private static final int PAGE_SIZE = 50;
+  private static final LocalDate TODAY = LocalDate.now();
+
+  private static final Set<String> ALL_INDEXES =
+      Set.of("idx_user_date", "idx_user_category_date", "idx_user_amount");
+
+  @Container
+  @ServiceConnection
+  static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36")
+      .withUsername("root");
+
+  @Autowired
+  private ExpenseQueryService queryService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  // Seeded once for the class; the Spring context, and with it the schema, is shared
+  private static User user;
+
+  @BeforeEach
+  void seedOnce() {
+    if (user == null) {
+      seed();
+    }
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+  }
+
+  private void seed() {
+    List<User> users = new ArrayList<>();
+    for (int u = 0; u < 3; u++) {
+      users.add(userRepository.save(User.builder()
+          .email("plan" + u + "@example.com")
+          .password("unused")
+          .firstName("Plan")
+          .lastName("Test")
+          .build()));
+    }
+    user = users.get(0);
+
+    ExpenseCategory[] categories = ExpenseCategory.values();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    List<Object[]> batch = new ArrayList<>();
+    for (User owner : users) {
+      for (int i = 0; i < ROWS_PER_USER; i++) {
+        batch.add(new Object[] {
+            "Expense number " + i,
+            BigDecimal.valueOf(100 + (i * 7_919L) % 100_000, 2),
+            categories[i % categories.length].name(),
+            Date.valueOf(TODAY.minusDays(i % 1_095)),
+            owner.getId(),
+            0L,
+            now,
+            now
+        });
+      }
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO expenses "
+        + "(description, amount, category, expense_date, user_id, change_version, created_at, "
+        + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    jdbcTemplate.execute("ANALYZE TABLE expenses");
+  }
+
+  @AfterEach
+  void clearAuthentication() {
+    SecurityContextHolder.clearContext();
+  }
+
+  static Stream<Arguments> combinations() {
+    Set<ExpenseCategory> one = Set.of(ExpenseCategory.GROCERIES);
+    Set<ExpenseCategory> two = Set.of(ExpenseCategory.GROCERIES, ExpenseCategory.HEALTH);
+    Money min = Money.ofCents(10_000);
+    Money max = Money.ofCents(20_000);
+    LocalDate from = TODAY.minusDays(90);
+
+    List<Arguments> arguments = new ArrayList<>();
+    for (boolean ascending : new boolean[] {false, true}) {
+      String order = ascending ? " ascending" : " descending";
+      // Date order
+      arguments.add(Arguments.of("date, no filter" + order, ExpenseFilter.builder()
+          .sortField(ExpenseSortField.DATE).ascending(ascending).build(),
+          Set.of("idx_user_date"), true));
+      arguments.add(Arguments.of("date, one category" + order, ExpenseFilter.builder()
+          .categories(one).sortField(ExpenseSortField.DATE).ascending(ascending).build(),
+          Set.of("idx_user_category_date", "idx_user_date"), true));
+      arguments.add(Arguments.of("date, two categories" + order, ExpenseFilter.builder()
+          .categories(two).sortField(ExpenseSortField.DATE).ascending(ascending).build(),
+          Set.of("idx_user_category_date", "idx_user_date"), true));
+      arguments.add(Arguments.of("date, amount range" + order, ExpenseFilter.builder()
+          .minAmount(min).maxAmount(max).sortField(ExpenseSortField.DATE)
+          .ascending(ascending).build(),
+          Set.of("idx_user_date", "idx_user_amount"), false));
+      arguments.add(Arguments.of("date, date range" + order, ExpenseFilter.builder()
+          .startDate(from).endDate(TODAY).sortField(ExpenseSortField.DATE)
+          .ascending(ascending).build(),
+          Set.of("idx_user_date"), true));
+      arguments.add(Arguments.of("date, text" + order, ExpenseFilter.builder()
+          .text("number 1").sortField(ExpenseSortField.DATE).ascending(ascending).build(),
+          Set.of("idx_user_date"), true));
+      arguments.add(Arguments.of("date, all filters" + order, ExpenseFilter.builder()
+          .categories(two).minAmount(min).maxAmount(max).startDate(from).endDate(TODAY)
+          .text("number").sortField(ExpenseSortField.DATE).ascending(ascending).build(),
+          ALL_INDEXES, false));
+
+      // Amount order
+      arguments.add(Arguments.of("amount, no filter" + order, ExpenseFilter.builder()
+          .sortField(ExpenseSortField.AMOUNT).ascending(ascending).build(),
+          Set.of("idx_user_amount"), true));
+      arguments.add(Arguments.of("amount, two categories" + order, ExpenseFilter.builder()
+          .categories(two).sortField(ExpenseSortField.AMOUNT).ascending(ascending).build(),
+          Set.of("idx_user_amount", "idx_user_category_date"), false));
+      arguments.add(Arguments.of("amount, amount range" + order, ExpenseFilter.builder()
+          .minAmount(min).maxAmount(max).sortField(ExpenseSortField.AMOUNT)
+          .ascending(ascending).build(),
+          Set.of("idx_user_amount"), true));
+      arguments.add(Arguments.of("amount, date range" + order, ExpenseFilter.builder()
+          .startDate(from).endDate(TODAY).sortField(ExpenseSortField.AMOUNT)
+          .ascending(ascending).build(),
+          Set.of("idx_user_amount", "idx_user_date"), false));
+      arguments.add(Arguments.of("amount, text" + order, ExpenseFilter.builder()
+          .text("number 1").sortField(ExpenseSortField.AMOUNT).ascending(ascending).build(),
+          Set.of("idx_user_amount"), true));
+      arguments.add(Arguments.of("amount, all filters" + order, ExpenseFilter.builder()
+          .categories(two).minAmount(min).maxAmount(max).startDate(from).endDate(TODAY)
+          .text("number").sortField(ExpenseSortField.AMOUNT).ascending(ascending).build(),
+          ALL_INDEXES, false));
+    }
+    return arguments.stream();
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("combinations")
+  void usesUserLedIndex(String name, ExpenseFilter filter, Set<String> expectedKeys,
+      boolean inIndexOrder) {
+    List<JsonNode> plans = planFirstTwoPages(filter);
+
+    assertThat(plans).as(name).isNotEmpty();
+    for (JsonNode plan : plans) {
+      JsonNode table = findTable(plan);
+      assertThat(table.path("access_type").asText()).as(name + ": access type")
+          .isIn("ref", "range");
+      assertThat(table.path("key").asText()).as(name + ": key").isIn(expectedKeys);
+      if (inIndexOrder) {
+        assertThat(plan.findValues("using_filesort")).as(name + ": filesort")
+            .allMatch(usingFilesort -> !usingFilesort.asBoolean());
+      }
+    }
+  }
+
+  /**
+   * Runs the query for the first page and, through its cursor, the second one, then explains
+   * every expense SELECT the connection executed meanwhile.
+   */
+  private List<JsonNode> planFirstTwoPages(ExpenseFilter filter) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    return transaction.execute(status -> {
+      long marker = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(EVENT_ID), 0) "
+          + "FROM performance_schema.events_statements_history "
+          + "WHERE THREAD_ID = PS_CURRENT_THREAD_ID()", Long.class);
+      ExpensePageResponse first = queryService.query(filter, null, PAGE_SIZE);
+      if (first.getNextCursor() != null) {
+        queryService.query(filter, first.getNextCursor(), PAGE_SIZE);
+      }
+      List<String> statements = jdbcTemplate.queryForList("SELECT SQL_TEXT "
+          + "FROM performance_schema.events_statements_history "
+          + "WHERE THREAD_ID = PS_CURRENT_THREAD_ID() AND EVENT_ID > ? "
+          + "AND SQL_TEXT LIKE 'select %from expenses %' ORDER BY EVENT_ID", String.class,
+          marker);
+      List<JsonNode> plans = new ArrayList<>();
+      for (String statement : statements) {
+        plans.add(explain(statement));
+      }
+      return plans;
+    });
+  }
+
+  private JsonNode explain(String statement) {
+    try {
+      return objectMapper.readTree(
+          jdbcTemplate.queryForObject("EXPLAIN FORMAT=JSON " + statement, String.class));
+    } catch (Exception e) {
+      throw new IllegalStateException("Cannot explain " + statement, e);
+    }
+  }
+
+  private static JsonNode findTable(JsonNode plan) {
+    JsonNode table = plan.findValue("table");
+    assertThat(table).as("table access in " + plan).isNotNull();
+    return table;
+  }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.InvalidInputException;
+import com.expensetracker.exception.SyncTokenExpiredException;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseTombstoneRepository;
+import com.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseSyncServiceTest {
+
+  private static final long CURRENT_VERSION = 20;
+
+  @Mock
+  private ExpenseRepository expenseRepository;
+
+  @Mock
+  private ExpenseTombstoneRepository tombstoneRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private CurrentUserProvider currentUserProvider;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @InjectMocks
+  private ExpenseSyncService syncService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(syncService, "tombstoneRetention", Duration.ofDays(30));
+    ReflectionTestUtils.setField(syncService, "pageSize", 500);
+    User user = User.builder().id(1L).email("sync@example.com").build();
+    when(currentUserProvider.getCurrentUser()).thenReturn(user);
+    when(userRepository.findExpenseVersion(1L)).thenReturn(CURRENT_VERSION);
+  }
+
+  @Test
+  void rejectsTokensOlderThanTheTombstoneRetention() {
+    String token = SyncToken.of(5, Instant.now().minus(Duration.ofDays(31))).encode();
+
+    assertThatThrownBy(() -> syncService.getChanges(token))
+        .isInstanceOf(SyncTokenExpiredException.class);
+    verifyNoInteractions(expenseRepository, tombstoneRepository);
+  }
+
+  @Test
+  void rejectsContinuationsBeyondTheCurrentVersion() {
+    // Left over from before a restore: the sync it continues can no longer be completed
+    String token = SyncToken.of(5, Instant.now()).upTo(CURRENT_VERSION + 1)
+        .afterChange(7, 3).encode();
+
+    assertThatThrownBy(() -> syncService.getChanges(token))
+        .isInstanceOf(SyncTokenExpiredException.class);
+    verifyNoInteractions(expenseRepository, tombstoneRepository);
+  }
+
+  @Test
+  void rejectsMalformedTokens() {
+    assertThatThrownBy(() -> syncService.getChanges("bm90LWEtdG9rZW4"))
+        .isInstanceOf(InvalidInputException.class);
+    verifyNoInteractions(expenseRepository, tombstoneRepository);
+  }
+}
@@ -0,0 +1,100 @@
+package com.expensetracker.service;
+
+import com.expensetracker.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncTokenTest {
+
+  private static final Instant ISSUED_AT = Instant.ofEpochSecond(1_700_000_000L);
+
+  @Test
+  void completeTokenRoundTrips() {
+    SyncToken token = SyncToken.of(42, ISSUED_AT);
+
+    assertThat(raw(token)).isEqualTo("42:1700000000");
+    SyncToken decoded = SyncToken.decode(token.encode());
+    assertThat(decoded.getVersion()).isEqualTo(42);
+    assertThat(decoded.getIssuedAt()).isEqualTo(ISSUED_AT);
+    assertThat(decoded.isContinuation()).isFalse();
+    assertThat(decoded.isFullSnapshot()).isFalse();
+  }
+
+  @Test
+  void changeContinuationRoundTrips() {
+    SyncToken token = SyncToken.of(3, ISSUED_AT).upTo(10).afterChange(7, 1234);
+
+    assertThat(raw(token)).isEqualTo("3:1700000000:10:c:7:1234");
+    SyncToken decoded = SyncToken.decode(token.encode());
+    assertThat(decoded.isContinuation()).isTrue();
+    assertThat(decoded.getVersion()).isEqualTo(3);
+    assertThat(decoded.getUpToVersion()).isEqualTo(10);
+    assertThat(decoded.isInDeletions()).isFalse();
+    assertThat(decoded.getAfterVersion()).isEqualTo(7);
+    assertThat(decoded.getAfterId()).isEqualTo(1234);
+  }
+
+  @Test
+  void deletionContinuationRoundTrips() {
+    SyncToken started = SyncToken.of(3, ISSUED_AT).upTo(10).startDeletions();
+    SyncToken decoded = SyncToken.decode(started.encode());
+    assertThat(decoded.isInDeletions()).isTrue();
+    assertThat(decoded.getAfterVersion()).isEqualTo(3);
+    assertThat(decoded.getAfterId()).isEqualTo(Long.MAX_VALUE);
+
+    decoded = SyncToken.decode(decoded.afterDeletion(9, 55).encode());
+    assertThat(raw(decoded)).isEqualTo("3:1700000000:10:d:9:55");
+    assertThat(decoded.isInDeletions()).isTrue();
+    assertThat(decoded.getAfterVersion()).isEqualTo(9);
+    assertThat(decoded.getAfterId()).isEqualTo(55);
+  }
+
+  @Test
+  void snapshotContinuationRoundTrips() {
+    SyncToken token = SyncToken.of(SyncToken.SNAPSHOT, ISSUED_AT).upTo(8).afterChange(2, 17);
+
+    SyncToken decoded = SyncToken.decode(token.encode());
+    assertThat(decoded.isFullSnapshot()).isTrue();
+    assertThat(decoded.isContinuation()).isTrue();
+    assertThat(decoded.getUpToVersion()).isEqualTo(8);
+    assertThat(decoded.getAfterId()).isEqualTo(17);
+  }
+
+  @Test
+  void encodedTokenIsUrlSafe() {
+    String encoded = SyncToken.of(Long.MAX_VALUE, ISSUED_AT).upTo(Long.MAX_VALUE - 1)
+        .afterChange(Long.MAX_VALUE - 2, Long.MAX_VALUE).encode();
+
+    assertThat(encoded).matches("[A-Za-z0-9_-]+");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "42", "x:1700000000", "42:soon", "42:1700000000:10",
+      "42:1700000000:10:c:7", "42:1700000000:10:x:7:1", "42:1700000000:10:cd:7:1",
+      "42:1700000000:10:c:7:1:0", "42:1700000000:10:c:seven:1"})
+  void rejectsMalformedTokens(String raw) {
+    String encoded = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> SyncToken.decode(encoded))
+        .isInstanceOf(InvalidInputException.class);
+  }
+
+  @Test
+  void rejectsTokensThatAreNotBase64() {
+    assertThatThrownBy(() -> SyncToken.decode("not a token!"))
+        .isInstanceOf(InvalidInputException.class);
+  }
+
+  private static String raw(SyncToken token) {
+    return new String(Base64.getUrlDecoder().decode(token.encode()), StandardCharsets.UTF_8);
+  }
+}